@@ -0,0 +1,82 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.benchmark;
+
+import info.codywilliams.qsg.models.Team;
+import info.codywilliams.qsg.models.tournament.MatchDayTime;
+import info.codywilliams.qsg.models.tournament.Tournament;
+import info.codywilliams.qsg.models.tournament.TournamentOptions;
+import info.codywilliams.qsg.models.tournament.type.StraightRoundRobin;
+import info.codywilliams.qsg.service.NameGenerator;
+import info.codywilliams.qsg.service.PlayerFactory;
+import info.codywilliams.qsg.service.TeamFactory;
+import info.codywilliams.qsg.util.DependencyInjector;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.ResourceBundle;
+
+/**
+ * Builds the same league every time so benchmark runs can be compared with each other.
+ */
+public class SeasonFixture {
+    public static final long SEED = 0x5EA5_0000_0000_0001L;
+
+    public final ResourceBundle appResourceBundle;
+    public final ResourceBundle outputResourceBundle;
+    public final List<Team> teams;
+    public final Tournament tournament;
+
+    public SeasonFixture(int numTeams) {
+        appResourceBundle = ResourceBundle.getBundle("info.codywilliams.qsg.language.App", Locale.US);
+        outputResourceBundle = ResourceBundle.getBundle("info.codywilliams.qsg.language.Output", Locale.US);
+        // Pages read their author metadata from the injector's bundle
+        DependencyInjector.setBundle(appResourceBundle);
+
+        NameGenerator names = new NameGenerator("surnames");
+        PlayerFactory playerFactory = new PlayerFactory(new Random(SEED), names, names, names, names);
+        TeamFactory teamFactory = new TeamFactory(names, playerFactory, appResourceBundle);
+
+        teams = new ArrayList<>(numTeams);
+        for (int i = 1; i <= numTeams; i++)
+            teams.add(teamFactory.newTeam("Team " + i, "T" + i, "Pitch " + i));
+
+        TournamentOptions tournamentOptions = new TournamentOptions();
+        tournamentOptions.setLeagueName("Benchmark League");
+        tournamentOptions.setStartDate(LocalDate.of(2023, 10, 2));
+        tournamentOptions.getMatchDayTimeList().clear();
+        tournamentOptions.getMatchDayTimeList().addAll(List.of(
+                new MatchDayTime(DayOfWeek.FRIDAY, LocalTime.of(19, 30, 0), 1),
+                new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(10, 0, 0), 2),
+                new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(14, 0, 0), 3),
+                new MatchDayTime(DayOfWeek.SUNDAY, LocalTime.of(13, 0, 0), 4)
+        ));
+        // Large leagues need more than one match per slot to finish in a reasonable number of years
+        int count = Math.max(1, numTeams / 8);
+        tournamentOptions.getMatchDayTimeList().forEach(matchDayTime -> matchDayTime.setCount(count));
+
+        tournament = new StraightRoundRobin(tournamentOptions);
+        tournament.recalculateTournament(numTeams);
+    }
+}
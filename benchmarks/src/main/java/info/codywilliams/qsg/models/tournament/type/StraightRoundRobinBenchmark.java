@@ -0,0 +1,57 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.models.tournament.type;
+
+import info.codywilliams.qsg.benchmark.SeasonFixture;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+public class StraightRoundRobinBenchmark {
+
+    /**
+     * Leagues growing by about ten times the matches each step, the schedule should grow close to linearly with them.
+     */
+    @State(Scope.Benchmark)
+    public static class League {
+        @Param({"100", "300", "1000"})
+        int numTeams;
+        SeasonFixture fixture;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fixture = new SeasonFixture(numTeams);
+        }
+    }
+
+    /**
+     * Dates every match and then assigns the teams, the same work as changing the number of teams in the UI.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    @Fork(1)
+    public void schedule(League state, Blackhole blackhole) {
+        state.fixture.tournament.recalculateTournament(state.numTeams);
+        blackhole.consume(state.fixture.tournament.assignTeamsToMatches(state.fixture.teams, SeasonFixture.SEED));
+    }
+}
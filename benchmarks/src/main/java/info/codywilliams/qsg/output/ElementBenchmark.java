@@ -0,0 +1,59 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.output;
+
+import info.codywilliams.qsg.benchmark.SeasonFixture;
+import info.codywilliams.qsg.service.PageService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders every page of a 20 team season, match pages make up almost all of the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ElementBenchmark {
+    List<Page> pages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SeasonFixture fixture = new SeasonFixture(20);
+        PageService pageService = new PageService(fixture.outputResourceBundle);
+        pages = pageService.buildPages(fixture.tournament, fixture.teams, true, true, SeasonFixture.SEED);
+    }
+
+    @Benchmark
+    public void toHtml(Blackhole blackhole) {
+        for (Page page : pages)
+            blackhole.consume(page.toHtml(0));
+    }
+
+    @Benchmark
+    public void toWikitext(Blackhole blackhole) {
+        for (Page page : pages)
+            blackhole.consume(page.toWikitext());
+    }
+}
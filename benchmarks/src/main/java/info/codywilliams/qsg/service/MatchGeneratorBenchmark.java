@@ -0,0 +1,108 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.benchmark.SeasonFixture;
+import info.codywilliams.qsg.models.match.Match;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MatchGeneratorBenchmark {
+
+    /**
+     * Simulates the matches of a 20 team season one at a time on a single generator.
+     */
+    @State(Scope.Thread)
+    public static class SingleMatch {
+        @Param({"1", "2", "3", "4"})
+        int version;
+        SeasonFixture fixture;
+        MatchGeneratorV1 generator;
+        SimulationSnapshot snapshot;
+        List<Match> matches;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fixture = new SeasonFixture(20);
+            generator = (MatchGeneratorV1) MatchGenerator.create(SeasonFixture.SEED, version);
+            fixture.tournament.assignTeamsToMatches(fixture.teams, SeasonFixture.SEED);
+            matches = new ArrayList<>(fixture.tournament.getMatches());
+            snapshot = SimulationSnapshot.of(fixture.tournament.getTeamList());
+        }
+
+        @Setup(Level.Iteration)
+        public void clearInjuries() {
+            generator.setSnapshot(snapshot);
+            next = 0;
+        }
+
+        Match nextMatch() {
+            Match match = matches.get(next);
+            next = (next + 1) % matches.size();
+            return match;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public Match runMatch(SingleMatch state) {
+        Match match = state.nextMatch();
+        state.generator.run(match);
+        return match;
+    }
+
+    /**
+     * A full season on StraightRoundRobin, the tournament is rebuilt for every trial so team assignment is included
+     * the first time and reused afterwards, the same as regenerating output from the UI.
+     */
+    @State(Scope.Benchmark)
+    public static class Season {
+        @Param({"4", "20", "100", "500"})
+        int numTeams;
+        @Param({"1", "2", "3", "4"})
+        int version;
+        SeasonFixture fixture;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fixture = new SeasonFixture(numTeams);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(1)
+    public void generateSeason(Season state, Blackhole blackhole) {
+        MatchGenerator generator = MatchGenerator.create(SeasonFixture.SEED, state.version);
+        generator.generateMatches(state.fixture.tournament, state.fixture.teams);
+        blackhole.consume(state.fixture.tournament.getTournamentPoints());
+    }
+}
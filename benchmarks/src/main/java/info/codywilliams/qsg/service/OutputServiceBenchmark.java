@@ -0,0 +1,80 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.benchmark.SeasonFixture;
+import info.codywilliams.qsg.models.Context;
+import info.codywilliams.qsg.output.Page;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OutputServiceBenchmark {
+    @Param({"4", "20"})
+    int numTeams;
+    SeasonFixture fixture;
+    OutputService outputService;
+    PageService pageService;
+    List<Page> pages;
+    Path outputDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new SeasonFixture(numTeams);
+        Context context = new Context();
+        context.getTeams().addAll(fixture.teams);
+        SaveSettingsService saveSettingsService = new SaveSettingsService(context, fixture.appResourceBundle);
+
+        outputService = new OutputService(fixture.outputResourceBundle, saveSettingsService);
+        pageService = new PageService(fixture.outputResourceBundle);
+        pages = pageService.buildPages(fixture.tournament, fixture.teams, true, true, SeasonFixture.SEED);
+    }
+
+    // Team pages are merged into existing files, start from an empty directory so every write is a fresh one
+    @Setup(Level.Invocation)
+    public void createOutputDirectory() throws IOException {
+        outputDirectory = Files.createTempDirectory("qsg-benchmark");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteOutputDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(outputDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public Path writePagesToHtml() {
+        outputService.writePagesToHtml(pages, pageService.getYearRange(), outputDirectory);
+        return outputDirectory;
+    }
+}
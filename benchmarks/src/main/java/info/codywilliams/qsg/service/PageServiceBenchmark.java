@@ -0,0 +1,55 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.benchmark.SeasonFixture;
+import info.codywilliams.qsg.output.Page;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PageServiceBenchmark {
+    @Param({"4", "20"})
+    int numTeams;
+    @Param({"true", "false"})
+    boolean createMatchPages;
+    SeasonFixture fixture;
+    PageService pageService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new SeasonFixture(numTeams);
+        pageService = new PageService(fixture.outputResourceBundle);
+    }
+
+    /**
+     * Includes simulating the season, buildPages always regenerates the matches.
+     */
+    @Benchmark
+    public List<Page> buildPages() {
+        return pageService.buildPages(fixture.tournament, fixture.teams, createMatchPages, true, SeasonFixture.SEED);
+    }
+}
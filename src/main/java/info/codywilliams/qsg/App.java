@@ -25,6 +25,7 @@ import info.codywilliams.qsg.controllers.*;
 import info.codywilliams.qsg.models.Context;
 import info.codywilliams.qsg.service.*;
 import info.codywilliams.qsg.util.DependencyInjector;
+import info.codywilliams.qsg.util.Locales;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
@@ -41,7 +42,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.time.DayOfWeek;
 import java.util.Locale;
 import java.util.Random;
 import java.util.ResourceBundle;
@@ -92,7 +92,7 @@ public class App extends Application {
 
     @Override
     public void start(Stage window) throws IOException {
-        setupLocale();
+        Locales.setupDefault();
         setupDependencyInjector();
 
         Scene scene = new Scene(DependencyInjector.load("app"));
@@ -112,7 +112,8 @@ public class App extends Application {
         ResourceBundle resourceBundle = ResourceBundle.getBundle("info.codywilliams.qsg.language.App", locale);
         ResourceBundle outputResourceBundle = ResourceBundle.getBundle("info.codywilliams.qsg.language.Output", locale);
 
-        Context context = new Context();
+        // Edits only mark the tournament dirty, it is recalculated on the FX thread once they stop for a moment
+        Context context = new Context(Platform::runLater, 100);
         SaveSettingsService saveSettingsService = new SaveSettingsService(context, resourceBundle);
         PageService pageService = new PageService(outputResourceBundle);
         OutputService outputService = new OutputService(outputResourceBundle, saveSettingsService);
@@ -138,12 +139,4 @@ public class App extends Application {
         DependencyInjector.addInjectionMethod(TournamentInfoController.class, type -> new TournamentInfoController(context));
         DependencyInjector.addInjectionMethod(MediawikiSetupController.class, type -> new MediawikiSetupController(context));
     }
-
-    private void setupLocale() {
-        // Setup custom locale with first day of the week being Monday
-        Locale.setDefault(Locale.Category.FORMAT, new Locale.Builder()
-                .setLocale(Locale.getDefault())
-                .setExtension(Locale.UNICODE_LOCALE_EXTENSION, "fw-" + DayOfWeek.MONDAY.toString().substring(0, 3))
-                .build());
-    }
 }
\ No newline at end of file
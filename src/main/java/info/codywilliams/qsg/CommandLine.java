@@ -0,0 +1,228 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg;
+
+import info.codywilliams.qsg.models.Context;
+import info.codywilliams.qsg.models.tournament.Tournament;
+import info.codywilliams.qsg.output.Page;
+import info.codywilliams.qsg.service.*;
+import info.codywilliams.qsg.util.DependencyInjector;
+import info.codywilliams.qsg.util.Locales;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+
+/**
+ * Generates a season from a saved settings file without starting JavaFX.
+ * <p>
+ * Only the observable collections and properties from javafx.base are used, those work on any thread and don't need
+ * the toolkit, so this can run on machines without a display.
+ */
+public class CommandLine {
+    static final String USAGE = """
+            Usage: QuidditchSeasonGenerator --settings <file> [options]
+              --settings <file>           settings.json saved from the application
+              --seed <number>             seed to use instead of the one in the settings
+              --output <directory>        write HTML pages to the directory, defaults to output
+              --mediawiki <api url>       write the pages to a Mediawiki instead of HTML files
+              --username <username>       Mediawiki bot username, the password is read from QSG_MEDIAWIKI_PASSWORD
+              --overwrite                 replace the season on the Mediawiki if it already exists
+              --no-match-pages            don't create a page for every match
+              --no-player-details         leave player details out of the team pages
+              --monte-carlo <seasons>     simulate the season many times and print the standings distribution
+              --generator-version <n>     match generator version to simulate with, 1 to 4, defaults to 1
+              --help                      show this message
+            """;
+    static final String PASSWORD_ENVIRONMENT_VARIABLE = "QSG_MEDIAWIKI_PASSWORD";
+
+    private final Logger logger = LoggerFactory.getLogger(CommandLine.class);
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private File settingsFile;
+    private Long seed;
+    private Path outputPath = Paths.get("output");
+    private String mediawikiApiUrl;
+    private String mediawikiUsername;
+    private boolean overwrite = false;
+    private boolean createMatchPages = true;
+    private boolean includePlayerDetails = true;
+    private int monteCarloSeasons = 0;
+    private int generatorVersion = 1;
+
+    public CommandLine(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        System.exit(new CommandLine(System.out, System.err).run(args));
+    }
+
+    /**
+     * @param args command line arguments
+     * @return the process exit status
+     */
+    public int run(String[] args) {
+        try {
+            if (!parseArguments(args)) {
+                out.print(USAGE);
+                return 0;
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+
+        try {
+            return generate();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Unable to generate season from {}", settingsFile, e);
+            err.println("Unable to generate season: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * @return false if only the usage should be shown
+     */
+    boolean parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--help", "-h" -> {
+                    return false;
+                }
+                case "--settings" -> settingsFile = new File(value(args, ++i));
+                case "--seed" -> seed = parseNumber(args, ++i, Long::parseLong);
+                case "--output" -> outputPath = Paths.get(value(args, ++i));
+                case "--mediawiki" -> mediawikiApiUrl = value(args, ++i);
+                case "--username" -> mediawikiUsername = value(args, ++i);
+                case "--overwrite" -> overwrite = true;
+                case "--no-match-pages" -> createMatchPages = false;
+                case "--no-player-details" -> includePlayerDetails = false;
+                case "--monte-carlo" -> {
+                    monteCarloSeasons = parseNumber(args, ++i, Integer::parseInt);
+                    if (monteCarloSeasons < 1)
+                        throw new IllegalArgumentException("--monte-carlo needs at least 1 season");
+                }
+                case "--generator-version" -> {
+                    generatorVersion = parseNumber(args, ++i, Integer::parseInt);
+                    if (generatorVersion < 1 || generatorVersion > MatchGenerator.LATEST_VERSION)
+                        throw new IllegalArgumentException("--generator-version needs a version from 1 to " + MatchGenerator.LATEST_VERSION);
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if (settingsFile == null)
+            throw new IllegalArgumentException("--settings is required");
+        if (mediawikiApiUrl != null && mediawikiUsername == null)
+            throw new IllegalArgumentException("--mediawiki needs --username");
+
+        return true;
+    }
+
+    private int generate() throws IOException {
+        Locales.setupDefault();
+        Locale locale = Locale.getDefault();
+        ResourceBundle resourceBundle = ResourceBundle.getBundle("info.codywilliams.qsg.language.App", locale);
+        ResourceBundle outputResourceBundle = ResourceBundle.getBundle("info.codywilliams.qsg.language.Output", locale);
+        // Pages read their author from the injector's bundle
+        DependencyInjector.setBundle(resourceBundle);
+
+        Context context = new Context();
+        SaveSettingsService saveSettingsService = new SaveSettingsService(context, resourceBundle);
+        saveSettingsService.loadSettings(settingsFile);
+        if (seed != null)
+            context.setSeed(seed);
+
+        Tournament tournament = context.getCurrentTournament();
+        if (tournament == null)
+            throw new IllegalStateException(settingsFile + " doesn't have a tournament type");
+        if (context.getTeams().size() < 2)
+            throw new IllegalStateException(settingsFile + " needs at least 2 teams");
+
+        if (monteCarloSeasons > 0) {
+            MonteCarloRunner monteCarloRunner = new MonteCarloRunner(tournament, context.getTeams(), generatorVersion);
+            out.println(monteCarloRunner.run(context.getSeed(), monteCarloSeasons));
+            return 0;
+        }
+
+        PageService pageService = new PageService(outputResourceBundle);
+        pageService.setGeneratorVersion(generatorVersion);
+        OutputService outputService = new OutputService(outputResourceBundle, saveSettingsService);
+        List<Page> pages = pageService.buildPages(tournament, context.getTeams(), createMatchPages, includePlayerDetails, context.getSeed());
+
+        if (mediawikiApiUrl == null) {
+            outputService.writePagesToHtml(pages, pageService.getYearRange(), outputPath);
+            out.println("Wrote " + pages.size() + " pages to " + outputPath.toAbsolutePath());
+            return 0;
+        }
+
+        return writeToMediawiki(context.getMediawiki(), outputService, pageService, pages);
+    }
+
+    private int writeToMediawiki(Mediawiki mediawiki, OutputService outputService, PageService pageService, List<Page> pages) throws IOException {
+        String password = System.getenv(PASSWORD_ENVIRONMENT_VARIABLE);
+        if (password == null) {
+            err.println(PASSWORD_ENVIRONMENT_VARIABLE + " isn't set");
+            return 2;
+        }
+
+        Mediawiki.Response response = mediawiki.login(mediawikiApiUrl, mediawikiUsername, password);
+        if (response.isFailure()) {
+            err.println("Unable to log in to " + mediawikiApiUrl + ": " + response.getMessage());
+            return 1;
+        }
+
+        if (!overwrite && mediawiki.pageExists(pageService.getTournamentTitle())) {
+            err.println(pageService.getTournamentTitle() + " already exists, use --overwrite to replace it");
+            return 1;
+        }
+
+        outputService.writePagesToMediawiki(pages, mediawiki, pageService.getYearRange(), pageService.isIncludePlayerDetails());
+        out.println("Wrote " + pages.size() + " pages to " + mediawikiApiUrl);
+        return 0;
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        return args[i];
+    }
+
+    private static <T> T parseNumber(String[] args, int i, Function<String, T> parser) {
+        String value = value(args, i);
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a number, got " + value);
+        }
+    }
+}
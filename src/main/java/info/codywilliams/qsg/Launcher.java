@@ -20,6 +20,10 @@ package info.codywilliams.qsg;
 
 public class Launcher {
     public static void main(String[] args) {
-        App.main(args);
+        // Any arguments mean a headless run, the UI doesn't take any
+        if (args.length > 0)
+            CommandLine.main(args);
+        else
+            App.main(args);
     }
 }
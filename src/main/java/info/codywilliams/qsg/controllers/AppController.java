@@ -23,12 +23,14 @@ import info.codywilliams.qsg.layout.TournamentCalendar;
 import info.codywilliams.qsg.models.Context;
 import info.codywilliams.qsg.models.Team;
 import info.codywilliams.qsg.output.Page;
-import info.codywilliams.qsg.service.Mediawiki;
-import info.codywilliams.qsg.service.OutputService;
-import info.codywilliams.qsg.service.PageService;
-import info.codywilliams.qsg.service.TeamFactory;
+import info.codywilliams.qsg.service.*;
 import info.codywilliams.qsg.util.DependencyInjector;
+import info.codywilliams.qsg.util.Formatters;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -40,9 +42,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 public class AppController {
 
@@ -80,12 +87,18 @@ public class AppController {
     Button generateSeasonHtmlButton;
     @FXML
     Button generateSeasonWikitextButton;
+    @FXML
+    ProgressBar outputProgressBar;
+    @FXML
+    Button cancelOutputButton;
     MenuBar menuBar;
     AnchorPane teamEditorPane;
     AnchorPane tournamentEditorPane;
     VBox tournamentInfoBox;
     Node storedPane;
     private int teamNumber = 0;
+    private final BooleanProperty generatingOutput = new SimpleBooleanProperty(this, "generatingOutput", false);
+    private OutputTask outputTask;
     Logger logger = LoggerFactory.getLogger(AppController.class);
 
     public AppController(Context context, TeamFactory teamFactory, PageService pageService, OutputService outputService) {
@@ -139,8 +152,16 @@ public class AppController {
         }));
 
         viewTournamentCalendarButton.disableProperty().bind(context.matchesReadyProperty().not());
-        generateSeasonHtmlButton.disableProperty().bind(context.matchesReadyProperty().not());
-        generateSeasonWikitextButton.disableProperty().bind(Bindings.or(context.loggedInToMediawikiProperty().not(), context.matchesReadyProperty().not()));
+        generateSeasonHtmlButton.disableProperty().bind(Bindings.or(context.matchesReadyProperty().not(), generatingOutput));
+        generateSeasonWikitextButton.disableProperty().bind(Bindings.or(context.loggedInToMediawikiProperty().not(), context.matchesReadyProperty().not()).or(generatingOutput));
+        // The season is copied when output starts, but nothing may change the model while it's being generated
+        menuBar.disableProperty().bind(generatingOutput);
+        buttonFlowPane.disableProperty().bind(generatingOutput);
+        rightPane.disableProperty().bind(generatingOutput);
+        outputProgressBar.visibleProperty().bind(generatingOutput);
+        outputProgressBar.managedProperty().bind(generatingOutput);
+        cancelOutputButton.visibleProperty().bind(generatingOutput);
+        cancelOutputButton.managedProperty().bind(generatingOutput);
     }
 
     @FXML
@@ -150,39 +171,30 @@ public class AppController {
 
     @FXML
     void generateHTMLOutput(ActionEvent ignoredEvent) {
-        List<Page> pages = pageService.buildPages(
-                context.getCurrentTournament(), context.getTeams(), matchPagesCheckBox.isSelected(), playerDetailsCheckBox.isSelected(), context.getSeed()
-        );
-
-        outputService.writePagesToHtml(pages, pageService.getYearRange());
+        context.flushRecalculation();
+        startOutputTask(new OutputTask(null));
     }
 
     @FXML
     void generateWikitextOutput(ActionEvent ignoreEvent) {
-        List<Page> pages = pageService.buildPages(
-                context.getCurrentTournament(), context.getTeams(), matchPagesCheckBox.isSelected(), playerDetailsCheckBox.isSelected(), context.getSeed()
-        );
-        String tournamentTitle = pageService.getTournamentTitle();
-        Mediawiki mediawiki = context.getMediawiki();
-
-        try {
-            if(mediawiki.pageExists(tournamentTitle)) {
-                Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                alert.setTitle(resources.getString("alert.mediawiki.title"));
-                alert.setHeaderText(resources.getString("alert.mediawiki.header"));
-                alert.setContentText(resources.getString("alert.mediawiki.content"));
-                Optional<ButtonType> result = alert.showAndWait();
-                if (result.isEmpty() || result.get() != ButtonType.OK)
-                    return;
-            }
+        context.flushRecalculation();
+        startOutputTask(new OutputTask(context.getMediawiki()));
+    }
 
-            outputService.writePagesToMediawiki(pages, mediawiki, pageService.getYearRange(), pageService.isIncludePlayerDetails());
-        } catch (IOException e) {
-            logger.error("Error communicating with mediawiki instance", e);
-            throw new RuntimeException(e);
-        }
+    @FXML
+    void cancelOutput(ActionEvent ignoredEvent) {
+        if (outputTask != null)
+            outputTask.cancel();
+    }
 
+    private void startOutputTask(OutputTask task) {
+        outputTask = task;
+        generatingOutput.set(true);
+        outputProgressBar.progressProperty().bind(task.progressProperty());
 
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
     }
 
     public void createNewTeam() {
@@ -197,4 +209,131 @@ public class AppController {
     public void removeTeam() {
         context.getTeams().remove(leftPaneListView.getSelectionModel().getSelectedItem());
     }
+
+    /**
+     * Simulates the season, builds the pages and writes them to HTML files or publishes them to MediaWiki, off the
+     * JavaFX application thread.  The season is copied when the task is created, and the injuries, points and match
+     * titles are written back on the JavaFX application thread.  The task's value is false if publishing was called off
+     * because the tournament already exists on MediaWiki.
+     */
+    public class OutputTask extends Task<Boolean> implements GenerationProgress {
+        private final PreparedSeason season;
+        private final boolean createMatchPages;
+        private final boolean includePlayerDetails;
+        private final long seed;
+        private final Mediawiki mediawiki;
+        private Step step;
+        private long stepStart;
+        private long lastUpdate;
+
+        /**
+         * Must be created on the JavaFX application thread, after any pending tournament recalculation is done.
+         *
+         * @param mediawiki where to publish the pages, or null to write them to HTML files
+         */
+        public OutputTask(Mediawiki mediawiki) {
+            seed = context.getSeed();
+            season = PreparedSeason.of(context.getCurrentTournament(), context.getTeams(), seed);
+            createMatchPages = matchPagesCheckBox.isSelected();
+            includePlayerDetails = playerDetailsCheckBox.isSelected();
+            this.mediawiki = mediawiki;
+        }
+
+        @Override
+        protected Boolean call() throws IOException, ExecutionException, InterruptedException {
+            lastUpdate = System.nanoTime();
+            List<Page> pages = pageService.buildPages(season, createMatchPages, includePlayerDetails, seed, this);
+
+            if (mediawiki == null) {
+                outputService.writePagesToHtml(pages, pageService.getYearRange(), Paths.get("output"), this);
+                return true;
+            }
+
+            if (mediawiki.pageExists(pageService.getTournamentTitle()) && !confirmOverwrite())
+                return false;
+
+            outputService.writePagesToMediawiki(pages, mediawiki, pageService.getYearRange(), pageService.isIncludePlayerDetails(), this);
+            return true;
+        }
+
+        private boolean confirmOverwrite() throws ExecutionException, InterruptedException {
+            FutureTask<Boolean> confirm = new FutureTask<>(() -> {
+                Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+                alert.setTitle(resources.getString("alert.mediawiki.title"));
+                alert.setHeaderText(resources.getString("alert.mediawiki.header"));
+                alert.setContentText(resources.getString("alert.mediawiki.content"));
+                Optional<ButtonType> result = alert.showAndWait();
+                return result.isPresent() && result.get() == ButtonType.OK;
+            });
+            Platform.runLater(confirm);
+            return confirm.get();
+        }
+
+        @Override
+        public void updateModel(Runnable update) {
+            FutureTask<Void> modelUpdate = new FutureTask<>(update, null);
+            Platform.runLater(modelUpdate);
+            try {
+                modelUpdate.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Generating output was cancelled");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Unable to update the teams and tournament", e.getCause());
+            }
+        }
+
+        @Override
+        public synchronized void update(Step step, int done, int total) {
+            long now = System.nanoTime();
+            if (step != this.step) {
+                this.step = step;
+                stepStart = lastUpdate;
+            }
+            lastUpdate = now;
+
+            // Every step gets an equal share of the progress bar
+            updateProgress(step.ordinal() + (double) done / total, Step.values().length);
+
+            double perSecond = done / Math.max((now - stepStart) / 1e9, 0.001);
+            Duration remaining = Duration.ofSeconds(Math.round((total - done) / perSecond));
+            updateMessage(String.format(resources.getString("app.output.progress"),
+                    resources.getString(step.key), done, total, perSecond, Formatters.formatDuration(remaining)));
+        }
+
+        @Override
+        protected void running() {
+            super.running();
+            context.outputStatusProperty().bind(messageProperty());
+        }
+
+        @Override
+        protected void succeeded() {
+            super.succeeded();
+            finished(getValue() ? "app.output.finished" : "app.output.cancelled");
+        }
+
+        @Override
+        protected void cancelled() {
+            super.cancelled();
+            finished("app.output.cancelled");
+        }
+
+        @Override
+        protected void failed() {
+            super.failed();
+            finished("app.output.failed");
+            logger.error("Error generating output", getException());
+            if (getException() instanceof Exception exception)
+                App.exceptionAlert(exception, resources);
+        }
+
+        private void finished(String statusKey) {
+            context.outputStatusProperty().unbind();
+            context.setOutputStatus(resources.getString(statusKey));
+            outputProgressBar.progressProperty().unbind();
+            generatingOutput.set(false);
+            outputTask = null;
+        }
+    }
 }
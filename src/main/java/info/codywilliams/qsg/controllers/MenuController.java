@@ -13,6 +13,7 @@ import info.codywilliams.qsg.models.tournament.type.TournamentType;
 import info.codywilliams.qsg.service.MatchGenerator;
 import info.codywilliams.qsg.service.Mediawiki;
 import info.codywilliams.qsg.service.SaveSettingsService;
+import info.codywilliams.qsg.service.SimulationTrace;
 import info.codywilliams.qsg.service.TeamFactory;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -48,6 +49,8 @@ public class MenuController {
     @FXML
     TextField seedTextField;
     @FXML
+    MenuItem matchGeneratorTraceMenuItem;
+    @FXML
     ResourceBundle resources;
 
     static final List<String> britishTeams = List.of("appleby", "ballycastle", "caerphilly", "chudley",
@@ -67,6 +70,8 @@ public class MenuController {
     public void initialize() {
         seedTextField.textProperty().bindBidirectional(context.seedProperty(), new HexConverter());
         seedTextField.setTextFormatter(new TextFormatter<>(new HexConverter(), context.getSeed(), HexConverter::filter));
+        // Simulation events are only recorded when the JVM is started with -Dqsg.simulation.trace=true
+        matchGeneratorTraceMenuItem.setDisable(!SimulationTrace.ENABLED);
     }
 
     @FXML
@@ -172,22 +177,24 @@ public class MenuController {
     }
 
     void standardBritishQuidditchLeague(List<Team> teams) {
-        TournamentOptions options = context.getTournamentOptions();
-        options.setLeagueName(resources.getString("tournament.BIQL.name"));
-        options.matchDayTimeListProperty().get().clear();
-        List<MatchDayTime> matchDayTimeList = List.of(
-                new MatchDayTime(DayOfWeek.FRIDAY, LocalTime.of(19, 30, 0), 1),
-                new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(10, 0, 0), 2),
-                new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(14, 0, 0), 3),
-                new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(19, 0, 0), 4),
-                new MatchDayTime(DayOfWeek.SUNDAY, LocalTime.of(13, 0, 0), 5),
-                new MatchDayTime(DayOfWeek.SUNDAY, LocalTime.of(16, 30, 0), 6)
-        );
-        options.matchDayTimeListProperty().addAll(matchDayTimeList);
-        context.changeCurrentTournament(TournamentType.STRAIGHT_ROUND_ROBIN_HOME_AWAY);
-
-        context.getTeams().clear();
-        context.getTeams().addAll(teams);
+        context.batchChanges(() -> {
+            TournamentOptions options = context.getTournamentOptions();
+            options.setLeagueName(resources.getString("tournament.BIQL.name"));
+            options.matchDayTimeListProperty().get().clear();
+            List<MatchDayTime> matchDayTimeList = List.of(
+                    new MatchDayTime(DayOfWeek.FRIDAY, LocalTime.of(19, 30, 0), 1),
+                    new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(10, 0, 0), 2),
+                    new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(14, 0, 0), 3),
+                    new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(19, 0, 0), 4),
+                    new MatchDayTime(DayOfWeek.SUNDAY, LocalTime.of(13, 0, 0), 5),
+                    new MatchDayTime(DayOfWeek.SUNDAY, LocalTime.of(16, 30, 0), 6)
+            );
+            options.matchDayTimeListProperty().addAll(matchDayTimeList);
+            context.changeCurrentTournament(TournamentType.STRAIGHT_ROUND_ROBIN_HOME_AWAY);
+
+            context.getTeams().clear();
+            context.getTeams().addAll(teams);
+        });
     }
 
     @FXML
@@ -217,17 +224,19 @@ public class MenuController {
     }
 
     void standardHogwartsQuidditch(List<Team> teams) {
-        TournamentOptions options = context.getTournamentOptions();
-        options.setLeagueName(resources.getString("tournament.HOGW.name"));
-        options.matchDayTimeListProperty().get().clear();
-        List<MatchDayTime> matchDayTimeList = List.of(
-                new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(11, 0, 0), 2)
-        );
-        options.matchDayTimeListProperty().addAll(matchDayTimeList);
-        context.changeCurrentTournament(TournamentType.HOGWARTS);
-
-        context.getTeams().clear();
-        context.getTeams().addAll(teams);
+        context.batchChanges(() -> {
+            TournamentOptions options = context.getTournamentOptions();
+            options.setLeagueName(resources.getString("tournament.HOGW.name"));
+            options.matchDayTimeListProperty().get().clear();
+            List<MatchDayTime> matchDayTimeList = List.of(
+                    new MatchDayTime(DayOfWeek.SATURDAY, LocalTime.of(11, 0, 0), 2)
+            );
+            options.matchDayTimeListProperty().addAll(matchDayTimeList);
+            context.changeCurrentTournament(TournamentType.HOGWARTS);
+
+            context.getTeams().clear();
+            context.getTeams().addAll(teams);
+        });
     }
 
     @FXML
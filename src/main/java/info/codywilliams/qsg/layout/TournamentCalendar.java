@@ -24,18 +24,15 @@ import info.codywilliams.qsg.models.tournament.Tournament;
 import info.codywilliams.qsg.models.tournament.TournamentOptions;
 import info.codywilliams.qsg.util.DependencyInjector;
 import info.codywilliams.qsg.util.Formatters;
-import javafx.beans.property.ObjectProperty;
-import javafx.collections.ObservableSet;
+import javafx.collections.FXCollections;
 import javafx.geometry.HPos;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.ColumnConstraints;
-import javafx.scene.layout.GridPane;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -46,43 +43,55 @@ import java.time.Month;
 import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Locale;
-import java.util.ResourceBundle;
-
-public class TournamentCalendar extends GridPane {
-    private final ObservableSet<Match> matches;
-    private final ObjectProperty<LocalDate> startDate;
-    private final ObjectProperty<LocalDate> endDate;
+import java.util.*;
+
+/**
+ * Calendar of every day from the Monday before the tournament starts to its end date.
+ * <p>
+ * The weeks are rows of a {@link ListView}, so only the rows on screen have nodes and those are reused while
+ * scrolling.  The matches are indexed by day once when the calendar is created, filling a row only looks up its days.
+ */
+public class TournamentCalendar extends VBox {
+    private static final int DAYS_PER_WEEK = 7;
     private final boolean teamsAssigned;
     private final ResourceBundle resourceBundle;
+    private LocalDate firstMonday;
+    /**
+     * Matches sorted by day, the matches of day d are from dayStarts[d] up to dayStarts[d + 1]
+     */
+    private Match[] matchesByDay;
+    private int[] dayStarts;
 
     public TournamentCalendar(Tournament tournament, TournamentOptions tournamentOptions, ResourceBundle resourceBundle) {
         super();
-        matches = tournament.getMatches();
-        startDate = tournamentOptions.startDateProperty();
-        endDate = tournament.endDateProperty();
         teamsAssigned = tournament.isTeamsAssigned();
         this.resourceBundle = resourceBundle;
 
-        if (endDate.get() == null)
+        LocalDate startDate = tournamentOptions.getStartDate();
+        LocalDate endDate = tournament.getEndDate();
+        if (endDate == null)
             return;
 
-        drawCalendar();
+        firstMonday = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        // Until is exclusive, so add 1 day to end date for calculations.
+        int totalDays = (int) firstMonday.until(endDate.plusDays(1), ChronoUnit.DAYS);
+        indexMatches(tournament.getMatches(), totalDays);
+
+        drawCalendar(startDate, endDate, totalDays);
     }
 
     public static void displayTournamentCalendarWindow(Context context, ResourceBundle resourceBundle) {
         Stage calendarWindow = new Stage();
         calendarWindow.initModality(Modality.NONE);
-        ScrollPane scrollPane = new ScrollPane();
-        Scene calendarScene = new Scene(scrollPane, 1000, 1000);
+        StackPane root = new StackPane();
+        Scene calendarScene = new Scene(root, 1000, 1000);
         DependencyInjector.addStylesheet(calendarScene, "styles.css");
 
         DependencyInjector.setUpAndShowStage(calendarWindow, calendarScene, "tournament.calendar.window.title");
 
+        context.flushRecalculation();
         if (context.getCurrentTournament() == null) {
-            scrollPane.setContent(new Text("No matches to show yet, please configure the tournament"));
+            root.getChildren().add(new Text("No matches to show yet, please configure the tournament"));
             return;
         }
 
@@ -90,141 +99,215 @@ public class TournamentCalendar extends GridPane {
             context.getCurrentTournament().assignTeamsToMatches(context.getTeams(), context.getSeed());
 
         TournamentCalendar tournamentCalendar = new TournamentCalendar(context.getCurrentTournament(), context.getTournamentOptions(), resourceBundle);
-        scrollPane.setContent(tournamentCalendar);
+        root.getChildren().add(tournamentCalendar);
     }
 
-    private void drawCalendar() {
-        setAlignment(Pos.CENTER);
-        setMinHeight(300);
-        ColumnConstraints columnConstraints = new ColumnConstraints();
-        columnConstraints.setFillWidth(true);
-
-        for (int i = 0; i < 7; i++) {
-            getColumnConstraints().add(columnConstraints);
+    private void indexMatches(Collection<Match> matches, int totalDays) {
+        dayStarts = new int[totalDays + 1];
+        for (Match match : matches) {
+            int day = dayOf(match);
+            if (day >= 0 && day < totalDays)
+                dayStarts[day + 1]++;
         }
+        for (int day = 0; day < totalDays; day++)
+            dayStarts[day + 1] += dayStarts[day];
 
-        LocalDate firstMonday = startDate.get().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-
-        // Until and datesUtil are exclusive, so add 1 day to end date for calculations.
-        LocalDate dayAfterLast = endDate.get().plusDays(1);
-        int totalDates = (int) firstMonday.until(dayAfterLast, ChronoUnit.DAYS);
-        TournamentCalendarDay[] calendarDays = new TournamentCalendarDay[totalDates];
-
-        firstMonday.datesUntil(dayAfterLast).forEach(date -> {
-            int index = (int) firstMonday.until(date, ChronoUnit.DAYS);
-            calendarDays[index] = new TournamentCalendarDay(date);
-        });
-
+        matchesByDay = new Match[dayStarts[totalDays]];
+        int[] next = Arrays.copyOf(dayStarts, totalDays);
         for (Match match : matches) {
-            int index = (int) firstMonday.until(match.getStartDateTime().toLocalDate(), ChronoUnit.DAYS);
-            calendarDays[index].addMatch(match);
+            int day = dayOf(match);
+            if (day >= 0 && day < totalDays)
+                matchesByDay[next[day]++] = match;
         }
+        for (int day = 0; day < totalDays; day++)
+            Arrays.sort(matchesByDay, dayStarts[day], dayStarts[day + 1]);
+    }
 
-        int row = 1;
-        Month previousMonth = null;
+    private int dayOf(Match match) {
+        return (int) firstMonday.until(match.getStartDateTime().toLocalDate(), ChronoUnit.DAYS);
+    }
+
+    private void drawCalendar(LocalDate startDate, LocalDate endDate, int totalDays) {
+        setAlignment(Pos.TOP_CENTER);
+        setMinHeight(300);
 
-        String yearRange = startDate.get().getYear() == endDate.get().getYear() ? String.valueOf(startDate.get().getYear()) :
-                startDate.get().getYear() + " - " + endDate.get().getYear();
+        String yearRange = startDate.getYear() == endDate.getYear() ? String.valueOf(startDate.getYear()) :
+                startDate.getYear() + " - " + endDate.getYear();
 
         Label calendarLabel = new Label(yearRange + " Tournament Calendar");
         calendarLabel.getStyleClass().add("calendar-title");
-        add(calendarLabel, 0, 0, 7, 1);
-        setHalignment(calendarLabel, HPos.CENTER);
-
-        for (TournamentCalendarDay calendarDay : calendarDays) {
-            LocalDate date = calendarDay.getDate();
-            Month currentMonth = date.getMonth();
-
-            // If the day of week is Monday, advance row by 1 if the month hasn't changed since the month changing will advance the row
-            if (date.getDayOfWeek() == DayOfWeek.MONDAY && currentMonth == previousMonth) {
-                row++;
-            }
-            // Check if it is a new month, add the title and advance the row to the return value
-            if (currentMonth != previousMonth) {
-                previousMonth = currentMonth;
-                row = addMonthTitle(date, ++row);
-            }
 
-            Node entry = calendarDay.getNode();
-            if (date.getDayOfMonth() % 2 == 0)
-                entry.getStyleClass().add("calendar-entry-even");
-            else
-                entry.getStyleClass().add("calendar-entry-odd");
-            add(entry, date.getDayOfWeek().getValue() - 1, row);
+        ListView<CalendarRow> rows = new ListView<>(FXCollections.observableList(calendarRows(totalDays)));
+        rows.getStyleClass().add("calendar");
+        // Nothing to select, and an unfocused list view doesn't draw a focused cell
+        rows.setFocusTraversable(false);
+        rows.setCellFactory(listView -> new CalendarRowCell());
+        VBox.setVgrow(rows, Priority.ALWAYS);
 
-        }
+        getChildren().addAll(calendarLabel, rows);
     }
 
-    private int addMonthTitle(LocalDate date, int row) {
-        Label monthTitle = new Label(date.getMonth().getDisplayName(TextStyle.FULL_STANDALONE, Locale.getDefault()) + " " + date.getYear());
-        monthTitle.getStyleClass().add("calendar-month-title");
-        add(monthTitle, 0, row++, 7, 1);
-        setHalignment(monthTitle, HPos.CENTER);
+    /**
+     * A month title before the first week of every month, weeks that cross into a new month are split at the first
+     * of the month.
+     */
+    private List<CalendarRow> calendarRows(int totalDays) {
+        List<CalendarRow> rows = new ArrayList<>();
+        Month previousMonth = null;
 
-        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
-            HBox dayBox = new HBox();
-            dayBox.getStyleClass().add("calendar-header");
+        for (int weekStart = 0; weekStart < totalDays; weekStart += DAYS_PER_WEEK) {
+            int weekEnd = Math.min(weekStart + DAYS_PER_WEEK, totalDays) - 1;
+            LocalDate firstDate = firstMonday.plusDays(weekStart);
+            LocalDate lastDate = firstMonday.plusDays(weekEnd);
+            int rowStart = weekStart;
 
-            Label dayTitle = new Label(dayOfWeek.getDisplayName(TextStyle.FULL_STANDALONE, Locale.getDefault()));
-            dayTitle.getStyleClass().add("calendar-header-title");
+            if (firstDate.getMonth() != previousMonth) {
+                previousMonth = firstDate.getMonth();
+                rows.add(new CalendarRow(weekStart, weekStart, true));
+            }
+            if (lastDate.getMonth() != previousMonth) {
+                previousMonth = lastDate.getMonth();
+                int monthStart = weekStart + (int) firstDate.until(lastDate.withDayOfMonth(1), ChronoUnit.DAYS);
+                rows.add(new CalendarRow(rowStart, monthStart - 1, false));
+                rows.add(new CalendarRow(monthStart, monthStart, true));
+                rowStart = monthStart;
+            }
+            rows.add(new CalendarRow(rowStart, weekEnd, false));
+        }
 
-            dayBox.getChildren().add(dayTitle);
+        return rows;
+    }
 
-            add(dayBox, dayOfWeek.getValue() - 1, row);
-            setHalignment(dayBox, HPos.CENTER);
+    private static GridPane weekGrid() {
+        GridPane grid = new GridPane();
+        grid.setAlignment(Pos.CENTER);
+        for (int i = 0; i < DAYS_PER_WEEK; i++) {
+            ColumnConstraints columnConstraints = new ColumnConstraints();
+            columnConstraints.setFillWidth(true);
+            columnConstraints.setPercentWidth(100.0 / DAYS_PER_WEEK);
+            grid.getColumnConstraints().add(columnConstraints);
         }
-        return row + 1;
+        return grid;
     }
 
+    /**
+     * Either the title of the month starting on firstDay, or the days from firstDay to lastDay of one week
+     */
+    private record CalendarRow(int firstDay, int lastDay, boolean monthTitle) {
+    }
 
-    private class TournamentCalendarDay {
-        final LocalDate date;
-        final ArrayList<Match> matches;
+    private class CalendarRowCell extends ListCell<CalendarRow> {
+        private final VBox monthTitleBox;
+        private final Label monthTitle;
+        private final GridPane week;
+        private final CalendarDay[] days;
 
-        TournamentCalendarDay(LocalDate date) {
-            this.date = date;
-            matches = new ArrayList<>();
-        }
+        CalendarRowCell() {
+            monthTitle = new Label();
+            monthTitle.getStyleClass().add("calendar-month-title");
+            GridPane headers = weekGrid();
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                HBox dayBox = new HBox();
+                dayBox.getStyleClass().add("calendar-header");
 
-        void addMatch(Match match) {
-            matches.add(match);
-        }
+                Label dayTitle = new Label(dayOfWeek.getDisplayName(TextStyle.FULL_STANDALONE, Locale.getDefault()));
+                dayTitle.getStyleClass().add("calendar-header-title");
 
-        public LocalDate getDate() {
-            return date;
-        }
+                dayBox.getChildren().add(dayTitle);
 
-        public ArrayList<Match> getMatches() {
-            return matches;
+                headers.add(dayBox, dayOfWeek.getValue() - 1, 0);
+                GridPane.setHalignment(dayBox, HPos.CENTER);
+            }
+            monthTitleBox = new VBox(monthTitle, headers);
+            monthTitleBox.setAlignment(Pos.CENTER);
+
+            week = weekGrid();
+            days = new CalendarDay[DAYS_PER_WEEK];
+            for (int i = 0; i < DAYS_PER_WEEK; i++) {
+                days[i] = new CalendarDay();
+                week.add(days[i], i, 0);
+            }
         }
 
-        public Node getNode() {
+        @Override
+        protected void updateItem(CalendarRow row, boolean empty) {
+            super.updateItem(row, empty);
+            setText(null);
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+
+            if (row.monthTitle()) {
+                LocalDate date = firstMonday.plusDays(row.firstDay());
+                monthTitle.setText(date.getMonth().getDisplayName(TextStyle.FULL_STANDALONE, Locale.getDefault()) + " " + date.getYear());
+                setGraphic(monthTitleBox);
+                return;
+            }
 
-            VBox calendarEntry = new VBox();
-            calendarEntry.getStyleClass().add("calendar-entry");
+            // Day 0 is a Monday so the column is the day modulo 7, days outside the row keep their space empty
+            int weekStart = row.firstDay() - row.firstDay() % DAYS_PER_WEEK;
+            for (int column = 0; column < DAYS_PER_WEEK; column++) {
+                int day = weekStart + column;
+                if (day < row.firstDay() || day > row.lastDay())
+                    days[column].setVisible(false);
+                else
+                    days[column].show(day);
+            }
+            setGraphic(week);
+        }
+    }
 
-            Label dayNumber = new Label(String.valueOf(date.getDayOfMonth()));
+    /**
+     * One day of a week row, the labels for matches are kept and reused for the next day shown
+     */
+    private class CalendarDay extends VBox {
+        private final Label dayNumber;
+        private final HBox header;
+        private final List<Label> timeLabels = new ArrayList<>();
+        private final List<Label> teamLabels = new ArrayList<>();
+        private final List<Node> children = new ArrayList<>();
+
+        CalendarDay() {
+            dayNumber = new Label();
             dayNumber.getStyleClass().add("calendar-entry-title");
-            HBox hBox = new HBox(dayNumber);
-            hBox.setAlignment(Pos.TOP_RIGHT);
+            header = new HBox(dayNumber);
+            header.setAlignment(Pos.TOP_RIGHT);
+            getStyleClass().add("calendar-entry");
+        }
+
+        void show(int day) {
+            LocalDate date = firstMonday.plusDays(day);
+            setVisible(true);
+            dayNumber.setText(String.valueOf(date.getDayOfMonth()));
+            getStyleClass().setAll("calendar-entry", date.getDayOfMonth() % 2 == 0 ? "calendar-entry-even" : "calendar-entry-odd");
 
-            calendarEntry.getChildren().add(hBox);
+            children.clear();
+            children.add(header);
+            for (int i = dayStarts[day]; i < dayStarts[day + 1]; i++) {
+                Match match = matchesByDay[i];
+                int number = i - dayStarts[day];
 
-            Collections.sort(matches);
-            for (Match match : matches) {
-                Label matchTime = new Label(match.getStartDateTime().format(Formatters.timeFormatter));
-                matchTime.getStyleClass().add("calendar-entry-time");
-                calendarEntry.getChildren().add(matchTime);
+                Label matchTime = label(timeLabels, number, "calendar-entry-time");
+                matchTime.setText(match.getStartDateTime().format(Formatters.timeFormatter));
+                children.add(matchTime);
 
                 if (teamsAssigned) {
-                    Label teams = new Label(match.getHomeTeam().getName() + " " + resourceBundle.getString("match.versus.abbr") + " " + match.getAwayTeam().getName());
-                    teams.getStyleClass().add("calendar-entry-name");
-                    calendarEntry.getChildren().add(teams);
+                    Label teams = label(teamLabels, number, "calendar-entry-name");
+                    teams.setText(match.getHomeTeam().getName() + " " + resourceBundle.getString("match.versus.abbr") + " " + match.getAwayTeam().getName());
+                    children.add(teams);
                 }
             }
-
-            return calendarEntry;
+            getChildren().setAll(children);
         }
 
+        private static Label label(List<Label> labels, int index, String styleClass) {
+            while (labels.size() <= index) {
+                Label label = new Label();
+                label.getStyleClass().add(styleClass);
+                labels.add(label);
+            }
+            return labels.get(index);
+        }
     }
 }
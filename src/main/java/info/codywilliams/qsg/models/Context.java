@@ -25,7 +25,6 @@ import info.codywilliams.qsg.service.Mediawiki;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
-import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -36,6 +35,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 public class Context {
     private final ObjectProperty<Team> currentTeam;
@@ -52,10 +52,20 @@ public class Context {
     final private BooleanProperty loggedInToMediawiki;
     private final BooleanProperty matchesReady;
     private final Mediawiki mediawiki;
-    private boolean listChangeAndChangeFlag = false;
+    private final TournamentRecalculator tournamentRecalculator;
 
 
+    /**
+     * Recalculates the tournament straight away on every change, for use without the FX toolkit.
+     */
     public Context() {
+        this(null, 0);
+    }
+
+    /**
+     * @param recalculationExecutor runs tournament recalculations once changes have been quiet for quietMillis
+     */
+    public Context(Executor recalculationExecutor, long quietMillis) {
         currentTeam = new SimpleObjectProperty<>(this, "currentTeam");
         teams = new SimpleListProperty<>(this, "teams", FXCollections.observableList(new ArrayList<>(),
                 team -> new Observable[]{team.nameProperty(), team.homeProperty()}
@@ -77,6 +87,13 @@ public class Context {
 
         mediawiki = new Mediawiki();
 
+        Runnable recalculation = () -> {
+            if (currentTournament.get() != null)
+                currentTournament.get().recalculateTournament(numTeams.get());
+        };
+        tournamentRecalculator = recalculationExecutor == null ? new TournamentRecalculator(recalculation)
+                : new TournamentRecalculator(recalculation, recalculationExecutor, quietMillis);
+
         teamListenersAndBindings();
         tournamentListeners();
     }
@@ -93,10 +110,7 @@ public class Context {
 
     private void teamListenersAndBindings() {
         numTeams.bind(Bindings.size(teams));
-        numTeams.addListener((observableValue, oldNumTeams, newNumTeams) -> {
-            if (currentTournament.get() != null)
-                currentTournament.get().recalculateTournament(numTeams.get());
-        });
+        numTeams.addListener((observableValue, oldNumTeams, newNumTeams) -> tournamentRecalculator.markDirty());
 
         getTeams().addListener((ListChangeListener<Team>) change -> {
             while (change.next()) {
@@ -110,47 +124,57 @@ public class Context {
 
     private void tournamentListeners() {
         ListChangeListener<Object> listChangeListener = change -> {
-            if (currentTournament.getValue() != null) {
-                boolean flag = true;
-                while (change.next()) {
-                    if (!change.wasPermutated() && flag) {
-                        currentTournament.getValue().recalculateTournament(numTeams.get());
-                        flag = false;
-                        listChangeAndChangeFlag = true;
-                    }
+            while (change.next()) {
+                if (!change.wasPermutated()) {
+                    tournamentRecalculator.markDirty();
+                    return;
                 }
             }
         };
 
-        ChangeListener<Object> changeListener = (observableValue, oldObject, newObject) -> {
-            if (currentTournament.getValue() != null && !listChangeAndChangeFlag) {
-                currentTournament.getValue().recalculateTournament(numTeams.get());
-            }
-            listChangeAndChangeFlag = false;
-        };
-
-
         tournamentOptions.blackoutDatesProperty().addListener(listChangeListener);
         tournamentOptions.matchDayTimeListProperty().addListener(listChangeListener);
-        tournamentOptions.startDateProperty().addListener(changeListener);
+        tournamentOptions.startDateProperty().addListener((observableValue, oldDate, newDate) -> tournamentRecalculator.markDirty());
+    }
+
+    /**
+     * Makes a set of changes with a single tournament recalculation at the end.
+     */
+    public void batchChanges(Runnable changes) {
+        tournamentRecalculator.suspend();
+        try {
+            changes.run();
+        } finally {
+            tournamentRecalculator.resume();
+        }
+    }
+
+    /**
+     * Recalculates the tournament now if any changes are still waiting for it.
+     */
+    public void flushRecalculation() {
+        tournamentRecalculator.flush();
     }
 
     public void clearContext() {
-        currentTeam.set(null);
-        teams.clear();
-        currentTournament.set(null);
-        currentType.set(null);
-        tournaments.clear();
-        tournamentOptions.clear();
-        seed.set(new Random().nextLong());
+        batchChanges(() -> {
+            currentTeam.set(null);
+            teams.clear();
+            currentTournament.set(null);
+            currentType.set(null);
+            tournaments.clear();
+            tournamentOptions.clear();
+            seed.set(new Random().nextLong());
+        });
     }
 
     public void loadContext(SaveSettings settings) {
-        teams.addAll(settings.getTeams());
-        tournamentOptions.loadSettings(settings);
-        changeCurrentTournament(settings.getTournamentType());
-        seed.set(settings.getSeed());
-
+        batchChanges(() -> {
+            teams.addAll(settings.getTeams());
+            tournamentOptions.loadSettings(settings);
+            changeCurrentTournament(settings.getTournamentType());
+            seed.set(settings.getSeed());
+        });
     }
 
     public Team getCurrentTeam() {
@@ -277,7 +301,7 @@ public class Context {
             }
         }
         setCurrentTournament(getTournaments().get(type));
-        getCurrentTournament().recalculateTournament(getNumTeams());
+        tournamentRecalculator.markDirty();
     }
 
     public Mediawiki getMediawiki() {
@@ -0,0 +1,126 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.models;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the changes that need the current tournament recalculated.  A change only marks the tournament dirty, it
+ * is recalculated once the changes have been quiet for a short time, when it's flushed, or when the last suspension
+ * of a bulk change ends.
+ * <p>
+ * Recalculating updates properties the UI is bound to, so the quiet period is timed on a background thread but the
+ * recalculation itself always runs through the executor, Platform::runLater for the app.  Without a quiet period,
+ * used when there is no FX toolkit, every change outside a suspension recalculates straight away on the caller's
+ * thread.  Every other method is meant to be called on the thread the executor runs on.
+ */
+public class TournamentRecalculator {
+    private final Runnable recalculation;
+    private final Executor executor;
+    private final long quietMillis;
+    private ScheduledExecutorService timer;
+    private ScheduledFuture<?> pending;
+    private int suspended = 0;
+    private boolean dirty = false;
+
+    /**
+     * Recalculates on every change
+     */
+    public TournamentRecalculator(Runnable recalculation) {
+        this(recalculation, Runnable::run, 0);
+    }
+
+    /**
+     * @param executor    runs the recalculation after the quiet period
+     * @param quietMillis how long to wait after the last change before recalculating
+     */
+    public TournamentRecalculator(Runnable recalculation, Executor executor, long quietMillis) {
+        this.recalculation = recalculation;
+        this.executor = executor;
+        this.quietMillis = quietMillis;
+    }
+
+    public void markDirty() {
+        dirty = true;
+        if (suspended > 0)
+            return;
+
+        if (quietMillis <= 0) {
+            flush();
+            return;
+        }
+
+        // Restart the quiet period
+        if (pending != null)
+            pending.cancel(false);
+        pending = timer().schedule(() -> executor.execute(this::flush), quietMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Holds changes back until {@link #resume()} is called the same number of times.
+     */
+    public void suspend() {
+        suspended++;
+    }
+
+    /**
+     * Recalculates once if anything changed while suspended
+     */
+    public void resume() {
+        if (suspended == 0)
+            throw new IllegalStateException("Recalculation isn't suspended");
+        suspended--;
+        if (suspended == 0)
+            flush();
+    }
+
+    /**
+     * Recalculates now if there are changes waiting, for anything that reads the tournament straight after a change.
+     */
+    public void flush() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (!dirty || suspended > 0)
+            return;
+
+        dirty = false;
+        recalculation.run();
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    private ScheduledExecutorService timer() {
+        if (timer == null) {
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tournament-recalculation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return timer;
+    }
+}
@@ -22,12 +22,22 @@ import info.codywilliams.qsg.models.Team;
 import info.codywilliams.qsg.models.player.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 public class Match implements Comparable<Match> {
+    private static final int QUAFFLE_OUTCOMES = 0;
+    private static final int BLUDGER_OUTCOMES = QUAFFLE_OUTCOMES + Quaffle.values().length;
+    private static final int SNITCH_OUTCOMES = BLUDGER_OUTCOMES + Bludger.values().length;
+    private static final int INJURY_TYPES = SNITCH_OUTCOMES + Snitch.values().length;
+    private static final int OUTCOMES_PER_TEAM = INJURY_TYPES + Injury.values().length;
     private final int number;
     private final int round;
     private final LocalDateTime startDateTime;
@@ -35,14 +45,11 @@ public class Match implements Comparable<Match> {
     private final Map<String, LocalDate> homeInjuredDuring;
     private final Map<String, LocalDate> awayInjuredBefore;
     private final Map<String, LocalDate> awayInjuredDuring;
-    private final EnumMap<Quaffle, Integer> homeQuaffleOutcomes;
-    private final EnumMap<Quaffle, Integer> awayQuaffleOutcomes;
-    private final EnumMap<Bludger, Integer> homeBludgerOutcomes;
-    private final EnumMap<Bludger, Integer> awayBludgerOutcomes;
-    private final EnumMap<Snitch, Integer> homeSnitchOutcomes;
-    private final EnumMap<Snitch, Integer> awaySnitchOutcomes;
-    private final EnumMap<Injury, Integer> homeInjuryTypes;
-    private final EnumMap<Injury, Integer> awayInjuryTypes;
+    /**
+     * Outcome totals, the home team's then the away team's, each with the quaffle, bludger and snitch outcomes and the
+     * injury types counted by ordinal
+     */
+    private final int[] outcomes = new int[OUTCOMES_PER_TEAM * 2];
     private Team homeTeam;
     private Team awayTeam;
     private Map<String, List<? extends Player>> homeTeamRoster;
@@ -54,7 +61,7 @@ public class Match implements Comparable<Match> {
     private int scoreAway;
     private int foulsHome;
     private int foulsAway;
-    private LinkedList<Play> plays;
+    private final PlayLog plays;
     private String title;
     private TeamType winner;
     private TeamType snitchCaughtBy;
@@ -68,14 +75,7 @@ public class Match implements Comparable<Match> {
         awayInjuredBefore = new TreeMap<>();
         awayInjuredDuring = new TreeMap<>();
 
-        homeQuaffleOutcomes = new EnumMap<>(Quaffle.class);
-        awayQuaffleOutcomes = new EnumMap<>(Quaffle.class);
-        homeBludgerOutcomes = new EnumMap<>(Bludger.class);
-        awayBludgerOutcomes = new EnumMap<>(Bludger.class);
-        homeSnitchOutcomes = new EnumMap<>(Snitch.class);
-        awaySnitchOutcomes = new EnumMap<>(Snitch.class);
-        homeInjuryTypes = new EnumMap<>(Injury.class);
-        awayInjuryTypes = new EnumMap<>(Injury.class);
+        plays = new PlayLog();
 
         clear();
     }
@@ -83,29 +83,13 @@ public class Match implements Comparable<Match> {
     public void clear() {
         matchLength = Duration.ZERO;
         snitchReleaseTime = Duration.ZERO;
-        plays = new LinkedList<>();
+        plays.clear();
         scoreHome = 0;
         scoreAway = 0;
         foulsHome = 0;
         foulsAway = 0;
         winner = null;
-
-        for (Quaffle outcome : Quaffle.values()) {
-            homeQuaffleOutcomes.put(outcome, 0);
-            awayQuaffleOutcomes.put(outcome, 0);
-        }
-        for (Snitch outcome : Snitch.values()) {
-            homeSnitchOutcomes.put(outcome, 0);
-            awaySnitchOutcomes.put(outcome, 0);
-        }
-        for (Bludger outcome : Bludger.values()) {
-            homeBludgerOutcomes.put(outcome, 0);
-            awayBludgerOutcomes.put(outcome, 0);
-        }
-        for (Injury type : Injury.values()) {
-            homeInjuryTypes.put(type, 0);
-            awayInjuryTypes.put(type, 0);
-        }
+        Arrays.fill(outcomes, 0);
 
         homeInjuredBefore.clear();
         homeInjuredDuring.clear();
@@ -162,40 +146,31 @@ public class Match implements Comparable<Match> {
         this.snitchReleaseTime = snitchReleaseTime;
     }
 
-    public LinkedList<Play> getPlays() {
+    public PlayLog getPlays() {
         return plays;
     }
 
     public void addPlay(Play play) {
+        addPlayToTotals(play);
+        this.plays.add(play);
+    }
+
+    /**
+     * Updates the match length and outcome totals with the play without keeping the play.
+     */
+    public void addPlayToTotals(Play play) {
         addTime(play.getPlayDurationSeconds());
         play.setScores(getScoreHome(), getScoreAway());
         play.setMatchLength(getMatchLength());
-        this.plays.add(play);
 
-        Map<Bludger, Integer> bludgerOutcome =
-                play.getAttackingTeamType() == TeamType.HOME
-                        ? homeBludgerOutcomes
-                        : awayBludgerOutcomes;
-        bludgerOutcome.merge(play.getBludgerOutcome(), 1, Integer::sum);
+        outcomes[outcomeIndex(play.getAttackingTeamType(), BLUDGER_OUTCOMES, play.getBludgerOutcome())]++;
 
         if (play.getInjuryType() != Injury.NONE) {
-            Map<Injury, Integer> injuryTypeMap;
-            Map<String, LocalDate> injuredDuringMap;
-
-            if (play.getInjuredPlayerTeam() == TeamType.HOME) {
-                injuryTypeMap = homeInjuryTypes;
-                injuredDuringMap = homeInjuredDuring;
-            } else {
-                injuryTypeMap = awayInjuryTypes;
-                injuredDuringMap = awayInjuredDuring;
-            }
-
-            injuryTypeMap.merge(
-                    play.getInjuryType(),
-                    1,
-                    Integer::sum
-            );
+            outcomes[outcomeIndex(play.getInjuredPlayerTeam(), INJURY_TYPES, play.getInjuryType())]++;
 
+            Map<String, LocalDate> injuredDuringMap = play.getInjuredPlayerTeam() == TeamType.HOME
+                    ? homeInjuredDuring
+                    : awayInjuredDuring;
             injuredDuringMap.merge(
                     play.getInjuredPlayer().getName(),
                     play.getInjuryEndDate(),
@@ -203,25 +178,104 @@ public class Match implements Comparable<Match> {
             );
         }
 
-        if (play instanceof PlayChaser playChaser) {
-            Map<Quaffle, Integer> quaffleOutcome =
-                    play.getAttackingTeamType() == TeamType.HOME
-                            ? homeQuaffleOutcomes
-                            : awayQuaffleOutcomes;
-            quaffleOutcome.merge(playChaser.getQuaffleOutcome(), 1, Integer::sum);
-        } else if (play instanceof PlaySeeker playSeeker) {
-            Map<Snitch, Integer> snitchOutcome =
-                    play.getAttackingTeamType() == TeamType.HOME
-                            ? homeSnitchOutcomes
-                            : awaySnitchOutcomes;
-            snitchOutcome.merge(playSeeker.getSnitchOutcome(), 1, Integer::sum);
+        if (play instanceof PlayChaser playChaser)
+            outcomes[outcomeIndex(play.getAttackingTeamType(), QUAFFLE_OUTCOMES, playChaser.getQuaffleOutcome())]++;
+        else if (play instanceof PlaySeeker playSeeker)
+            outcomes[outcomeIndex(play.getAttackingTeamType(), SNITCH_OUTCOMES, playSeeker.getSnitchOutcome())]++;
+    }
+
+    private static int outcomeIndex(TeamType teamType, int category, Enum<?> outcome) {
+        return teamOffset(teamType) + category + outcome.ordinal();
+    }
+
+    private static int teamOffset(TeamType teamType) {
+        return teamType == TeamType.HOME ? 0 : OUTCOMES_PER_TEAM;
+    }
+
+    /**
+     * Writes what simulating the match produced: the plays, scores, fouls, outcome totals and the players injured
+     * during the match.  The teams, rosters and players injured before the match aren't written.
+     *
+     * @param playerIds id of each player taking part in the plays
+     */
+    public void writeResult(DataOutput out, ToIntFunction<Player> playerIds) throws IOException {
+        out.writeLong(matchLength.toSeconds());
+        out.writeLong(snitchReleaseTime.toSeconds());
+        out.writeInt(scoreHome);
+        out.writeInt(scoreAway);
+        out.writeInt(foulsHome);
+        out.writeInt(foulsAway);
+        out.writeByte(winner == null ? -1 : winner.ordinal());
+        out.writeByte(snitchCaughtBy == null ? -1 : snitchCaughtBy.ordinal());
+        // Each category for both teams before the next category
+        for (int[] category : outcomeCategories()) {
+            for (int team = 0; team < 2; team++) {
+                for (int i = category[0]; i < category[1]; i++)
+                    out.writeInt(outcomes[team * OUTCOMES_PER_TEAM + i]);
+            }
+        }
+        writeInjuredPlayers(out, homeInjuredDuring);
+        writeInjuredPlayers(out, awayInjuredDuring);
+        plays.writeTo(out, playerIds);
+    }
+
+    /**
+     * Replaces the result of the match with one written by {@link #writeResult(DataOutput, ToIntFunction)}.
+     *
+     * @param players the player for each id
+     */
+    public void readResult(DataInput in, IntFunction<Player> players) throws IOException {
+        matchLength = Duration.ofSeconds(in.readLong());
+        snitchReleaseTime = Duration.ofSeconds(in.readLong());
+        scoreHome = in.readInt();
+        scoreAway = in.readInt();
+        foulsHome = in.readInt();
+        foulsAway = in.readInt();
+        byte winnerOrdinal = in.readByte();
+        winner = winnerOrdinal < 0 ? null : TeamType.values()[winnerOrdinal];
+        byte snitchCaughtByOrdinal = in.readByte();
+        snitchCaughtBy = snitchCaughtByOrdinal < 0 ? null : TeamType.values()[snitchCaughtByOrdinal];
+        for (int[] category : outcomeCategories()) {
+            for (int team = 0; team < 2; team++) {
+                for (int i = category[0]; i < category[1]; i++)
+                    outcomes[team * OUTCOMES_PER_TEAM + i] = in.readInt();
+            }
+        }
+        readInjuredPlayers(in, homeInjuredDuring);
+        readInjuredPlayers(in, awayInjuredDuring);
+        plays.readFrom(in, players);
+    }
+
+    /**
+     * @return start and end of each category of outcomes within a team's totals
+     */
+    private static int[][] outcomeCategories() {
+        return new int[][]{{QUAFFLE_OUTCOMES, BLUDGER_OUTCOMES}, {BLUDGER_OUTCOMES, SNITCH_OUTCOMES},
+                {SNITCH_OUTCOMES, INJURY_TYPES}, {INJURY_TYPES, OUTCOMES_PER_TEAM}};
+    }
+
+    private static void writeInjuredPlayers(DataOutput out, Map<String, LocalDate> injuredPlayers) throws IOException {
+        out.writeInt(injuredPlayers.size());
+        for (Map.Entry<String, LocalDate> entry : injuredPlayers.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().toEpochDay());
         }
     }
 
+    private static void readInjuredPlayers(DataInput in, Map<String, LocalDate> injuredPlayers) throws IOException {
+        injuredPlayers.clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++)
+            injuredPlayers.put(in.readUTF(), LocalDate.ofEpochDay(in.readLong()));
+    }
+
     public void addInjuredBeforePlayer(TeamType teamType, Player player) {
+        addInjuredBeforePlayer(teamType, player.getName(), player.findInjuryEndDate(getStartDateTime().toLocalDate()));
+    }
+
+    public void addInjuredBeforePlayer(TeamType teamType, String playerName, LocalDate endDate) {
         Map<String, LocalDate> injuredMap = teamType == TeamType.HOME ? homeInjuredBefore : awayInjuredBefore;
-        LocalDate endDate = player.findInjuryEndDate(getStartDateTime().toLocalDate());
-        injuredMap.put(player.getName(), endDate);
+        injuredMap.put(playerName, endDate);
     }
 
     public int getScoreHome() {
@@ -314,6 +368,54 @@ public class Match implements Comparable<Match> {
         return awayInjuredDuring;
     }
 
+    public int getCount(TeamType teamType, Quaffle outcome) {
+        return outcomes[outcomeIndex(teamType, QUAFFLE_OUTCOMES, outcome)];
+    }
+
+    public int getCount(TeamType teamType, Bludger outcome) {
+        return outcomes[outcomeIndex(teamType, BLUDGER_OUTCOMES, outcome)];
+    }
+
+    public int getCount(TeamType teamType, Snitch outcome) {
+        return outcomes[outcomeIndex(teamType, SNITCH_OUTCOMES, outcome)];
+    }
+
+    public int getCount(TeamType teamType, Injury injuryType) {
+        return outcomes[outcomeIndex(teamType, INJURY_TYPES, injuryType)];
+    }
+
+    /**
+     * @return number of injuries of every type the team had during the match
+     */
+    public int getInjuryCount(TeamType teamType) {
+        int start = teamOffset(teamType) + INJURY_TYPES;
+        int injuries = 0;
+        for (int i = start; i < start + Injury.values().length; i++)
+            injuries += outcomes[i];
+        return injuries;
+    }
+
+    /**
+     * @return a copy of the home team's injury totals
+     */
+    public Map<Injury, Integer> getHomeInjuryTypes() {
+        return outcomeMap(Injury.class, TeamType.HOME, INJURY_TYPES);
+    }
+
+    /**
+     * @return a copy of the away team's injury totals
+     */
+    public Map<Injury, Integer> getAwayInjuryTypes() {
+        return outcomeMap(Injury.class, TeamType.AWAY, INJURY_TYPES);
+    }
+
+    private <E extends Enum<E>> EnumMap<E, Integer> outcomeMap(Class<E> type, TeamType teamType, int category) {
+        EnumMap<E, Integer> map = new EnumMap<>(type);
+        for (E outcome : type.getEnumConstants())
+            map.put(outcome, outcomes[outcomeIndex(teamType, category, outcome)]);
+        return map;
+    }
+
     public TeamType getSnitchCaughtBy() {
         return snitchCaughtBy;
     }
@@ -329,14 +431,14 @@ public class Match implements Comparable<Match> {
     public String outcomesToString() {
         return "Outcomes:\n" +
                 "\tHome: " +
-                "\n\t\tQuaffle: " + homeQuaffleOutcomes.toString() +
-                "\n\t\tBludger: " + homeBludgerOutcomes.toString() +
-                "\n\t\tSnitch: " + homeSnitchOutcomes.toString() +
-                "\n\t\tInjuries: " + homeInjuryTypes.toString() +
-                "\n\tAway:\n\t\tQuaffle: " + awayQuaffleOutcomes.toString() +
-                "\n\t\tBludger: " + awayBludgerOutcomes.toString() +
-                "\n\t\tSnitch: " + awaySnitchOutcomes.toString() +
-                "\n\t\tInjuries: " + awayInjuryTypes.toString();
+                "\n\t\tQuaffle: " + outcomeMap(Quaffle.class, TeamType.HOME, QUAFFLE_OUTCOMES) +
+                "\n\t\tBludger: " + outcomeMap(Bludger.class, TeamType.HOME, BLUDGER_OUTCOMES) +
+                "\n\t\tSnitch: " + outcomeMap(Snitch.class, TeamType.HOME, SNITCH_OUTCOMES) +
+                "\n\t\tInjuries: " + outcomeMap(Injury.class, TeamType.HOME, INJURY_TYPES) +
+                "\n\tAway:\n\t\tQuaffle: " + outcomeMap(Quaffle.class, TeamType.AWAY, QUAFFLE_OUTCOMES) +
+                "\n\t\tBludger: " + outcomeMap(Bludger.class, TeamType.AWAY, BLUDGER_OUTCOMES) +
+                "\n\t\tSnitch: " + outcomeMap(Snitch.class, TeamType.AWAY, SNITCH_OUTCOMES) +
+                "\n\t\tInjuries: " + outcomeMap(Injury.class, TeamType.AWAY, INJURY_TYPES);
     }
 
     @Override
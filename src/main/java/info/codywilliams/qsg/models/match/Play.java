@@ -110,6 +110,24 @@ public abstract class Play {
         return injuryEndDate;
     }
 
+    /**
+     * Puts the play back to how it was when created, so a play can be reused when plays aren't being kept
+     */
+    void reset(TeamType attackingTeamType) {
+        this.attackingTeamType = attackingTeamType;
+        injuredPlayer = null;
+        injury = Injury.NONE;
+        injuredPlayerTeam = null;
+        injuryEndDate = null;
+        bludger = Bludger.NONE;
+        beaterHitter = null;
+        beaterBlocker = null;
+        scoreHome = 0;
+        scoreAway = 0;
+        matchLength = null;
+        playDurationSeconds = 0;
+    }
+
     public void setInjury(Injury type, Player player, TeamType playerTeam, LocalDate endDate) {
         switch (type) {
             case NONE -> {
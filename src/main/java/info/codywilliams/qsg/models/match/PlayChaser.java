@@ -38,6 +38,16 @@ public class PlayChaser extends Play {
         this.defendingKeeper = defendingKeeper;
     }
 
+    public PlayChaser reset(TeamType attackingTeamType, TeamType defendingTeamType, Chaser attacker, Chaser defender, Keeper defendingKeeper) {
+        reset(attackingTeamType);
+        this.defendingTeamType = defendingTeamType;
+        this.attacker = attacker;
+        this.defender = defender;
+        this.defendingKeeper = defendingKeeper;
+        quaffle = null;
+        return this;
+    }
+
     public Chaser getAttacker() {
         return attacker;
     }
@@ -32,6 +32,13 @@ public class PlayFoul extends PlayChaser {
         this.foulerTeamType = foulerTeamType;
     }
 
+    public PlayFoul reset(Player fouler, TeamType foulerTeamType) {
+        reset(null, null, null, null, null);
+        this.fouler = fouler;
+        this.foulerTeamType = foulerTeamType;
+        return this;
+    }
+
     public Player getFouler() {
         return fouler;
     }
@@ -0,0 +1,375 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.models.match;
+
+import info.codywilliams.qsg.models.player.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * The plays of a match stored in parallel primitive arrays instead of one object per play.
+ * <p>
+ * The play type, team types, outcomes and the players taking part are packed into one long per play.  Players are
+ * stored as an index into a small table of the players on the pitch.  The match length and scores after each play
+ * are kept in their own arrays, and injury end dates only for the plays with an injury.  Plays are read back through
+ * a {@link Cursor}, which fills in a single play object of each type and hands the same objects out for every play.
+ */
+public class PlayLog implements Iterable<Play> {
+    private static final int CHASER = 0;
+    private static final int FOUL = 1;
+    private static final int SEEKER = 2;
+    private static final int MIN_CAPACITY = 64;
+
+    private static final int KIND_BITS = 2;
+    private static final int TEAM_BITS = 2;
+    private static final int OUTCOME_BITS = 3;
+    private static final int PLAYER_BITS = 4;
+
+    // Bit offsets, each field stores ordinal + 1 so 0 is null
+    private static final int KIND = 0;
+    private static final int ATTACKING_TEAM = KIND + KIND_BITS;
+    private static final int DEFENDING_TEAM = ATTACKING_TEAM + TEAM_BITS;
+    private static final int FOULER_TEAM = DEFENDING_TEAM + TEAM_BITS;
+    private static final int INJURED_PLAYER_TEAM = FOULER_TEAM + TEAM_BITS;
+    private static final int QUAFFLE_OR_SNITCH = INJURED_PLAYER_TEAM + TEAM_BITS;
+    private static final int BLUDGER = QUAFFLE_OR_SNITCH + OUTCOME_BITS;
+    private static final int INJURY = BLUDGER + OUTCOME_BITS;
+    // A seeker play stores its seekers in the attacker and defender slots
+    private static final int ATTACKER = INJURY + OUTCOME_BITS;
+    private static final int DEFENDER = ATTACKER + PLAYER_BITS;
+    private static final int KEEPER = DEFENDER + PLAYER_BITS;
+    private static final int BEATER_HITTER = KEEPER + PLAYER_BITS;
+    private static final int BEATER_BLOCKER = BEATER_HITTER + PLAYER_BITS;
+    private static final int FOULER = BEATER_BLOCKER + PLAYER_BITS;
+    private static final int INJURED_PLAYER = FOULER + PLAYER_BITS;
+    private static final int MAX_PLAYERS = (1 << PLAYER_BITS) - 1;
+
+    private static final TeamType[] teamTypes = TeamType.values();
+    private static final Quaffle[] quaffles = Quaffle.values();
+    private static final Bludger[] bludgers = Bludger.values();
+    private static final Snitch[] snitches = Snitch.values();
+    private static final Injury[] injuries = Injury.values();
+
+    private int size = 0;
+    private long[] plays = new long[0];
+    private int[] elapsedSeconds = new int[0];
+    private short[] scores = new short[0];
+    private int numInjuries = 0;
+    private int[] injuryEndDays = new int[0];
+    private final Player[] players = new Player[MAX_PLAYERS];
+    private int numPlayers = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(players, 0, numPlayers, null);
+        numPlayers = 0;
+        numInjuries = 0;
+        size = 0;
+    }
+
+    /**
+     * Copies a finished play into the log, the play can be reused afterwards.
+     */
+    public void add(Play play) {
+        if (size == plays.length) {
+            int capacity = Math.max(MIN_CAPACITY, size * 2);
+            plays = Arrays.copyOf(plays, capacity);
+            elapsedSeconds = Arrays.copyOf(elapsedSeconds, capacity);
+            scores = Arrays.copyOf(scores, capacity * 2);
+        }
+
+        long packed = pack(ATTACKING_TEAM, play.attackingTeamType)
+                | pack(INJURED_PLAYER_TEAM, play.injuredPlayerTeam)
+                | pack(BLUDGER, play.bludger)
+                | pack(INJURY, play.injury)
+                | packPlayer(BEATER_HITTER, play.beaterHitter)
+                | packPlayer(BEATER_BLOCKER, play.beaterBlocker)
+                | packPlayer(INJURED_PLAYER, play.injuredPlayer);
+
+        if (play instanceof PlayChaser playChaser) {
+            packed |= pack(DEFENDING_TEAM, playChaser.defendingTeamType)
+                    | pack(QUAFFLE_OR_SNITCH, playChaser.quaffle)
+                    | packPlayer(ATTACKER, playChaser.attacker)
+                    | packPlayer(DEFENDER, playChaser.defender)
+                    | packPlayer(KEEPER, playChaser.defendingKeeper);
+            if (play instanceof PlayFoul playFoul) {
+                packed |= (long) FOUL << KIND
+                        | pack(FOULER_TEAM, playFoul.foulerTeamType)
+                        | packPlayer(FOULER, playFoul.fouler);
+            } else
+                packed |= (long) CHASER << KIND;
+        } else if (play instanceof PlaySeeker playSeeker) {
+            packed |= (long) SEEKER << KIND
+                    | pack(QUAFFLE_OR_SNITCH, playSeeker.snitch)
+                    | packPlayer(ATTACKER, playSeeker.seeker)
+                    | packPlayer(DEFENDER, playSeeker.otherSeeker);
+        } else
+            throw new IllegalArgumentException("Unknown play type " + play.getClass().getName());
+
+        if (play.scoreHome > Short.MAX_VALUE || play.scoreAway > Short.MAX_VALUE)
+            throw new IllegalStateException("Score is too large for the play log");
+
+        plays[size] = packed;
+        elapsedSeconds[size] = play.matchLength == null ? 0 : (int) play.matchLength.toSeconds();
+        scores[size * 2] = (short) play.scoreHome;
+        scores[size * 2 + 1] = (short) play.scoreAway;
+
+        if (play.injuryEndDate != null) {
+            if (numInjuries == injuryEndDays.length)
+                injuryEndDays = Arrays.copyOf(injuryEndDays, Math.max(8, numInjuries * 2));
+            injuryEndDays[numInjuries++] = (int) play.injuryEndDate.toEpochDay();
+        }
+        size++;
+    }
+
+    /**
+     * Drops the spare capacity once the match is over.
+     */
+    public void trimToSize() {
+        if (plays.length != size) {
+            plays = Arrays.copyOf(plays, size);
+            elapsedSeconds = Arrays.copyOf(elapsedSeconds, size);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        if (injuryEndDays.length != numInjuries)
+            injuryEndDays = Arrays.copyOf(injuryEndDays, numInjuries);
+    }
+
+    /**
+     * Writes the plays with each player replaced by an id, so they can be read back for a different set of player
+     * objects.
+     *
+     * @param playerIds id of each player taking part in the plays
+     */
+    public void writeTo(DataOutput out, ToIntFunction<Player> playerIds) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(plays[i]);
+            out.writeInt(elapsedSeconds[i]);
+            out.writeShort(scores[i * 2]);
+            out.writeShort(scores[i * 2 + 1]);
+        }
+        out.writeInt(numInjuries);
+        for (int i = 0; i < numInjuries; i++)
+            out.writeInt(injuryEndDays[i]);
+        out.writeByte(numPlayers);
+        for (int i = 0; i < numPlayers; i++)
+            out.writeInt(playerIds.applyAsInt(players[i]));
+    }
+
+    /**
+     * Replaces the plays with ones written by {@link #writeTo(DataOutput, ToIntFunction)}.
+     *
+     * @param players the player for each id
+     */
+    public void readFrom(DataInput in, IntFunction<Player> players) throws IOException {
+        clear();
+        size = in.readInt();
+        plays = new long[size];
+        elapsedSeconds = new int[size];
+        scores = new short[size * 2];
+        for (int i = 0; i < size; i++) {
+            plays[i] = in.readLong();
+            elapsedSeconds[i] = in.readInt();
+            scores[i * 2] = in.readShort();
+            scores[i * 2 + 1] = in.readShort();
+        }
+        numInjuries = in.readInt();
+        injuryEndDays = new int[numInjuries];
+        for (int i = 0; i < numInjuries; i++)
+            injuryEndDays[i] = in.readInt();
+        numPlayers = in.readByte();
+        if (numPlayers < 0 || numPlayers > MAX_PLAYERS)
+            throw new IOException("Invalid number of players in play log: " + numPlayers);
+        for (int i = 0; i < numPlayers; i++)
+            this.players[i] = players.apply(in.readInt());
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * The plays handed out are reused, don't keep a reference to one after moving on to the next.
+     */
+    @Override
+    public Iterator<Play> iterator() {
+        Cursor cursor = cursor();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.index + 1 < size;
+            }
+
+            @Override
+            public Play next() {
+                if (!cursor.next())
+                    throw new NoSuchElementException();
+                return cursor.play();
+            }
+        };
+    }
+
+    private static long pack(int offset, Enum<?> value) {
+        return value == null ? 0 : (long) (value.ordinal() + 1) << offset;
+    }
+
+    private long packPlayer(int offset, Player player) {
+        if (player == null)
+            return 0;
+
+        // Only the players on the pitch take part, so the table stays small enough to search
+        int index = 0;
+        while (index < numPlayers && players[index] != player)
+            index++;
+        if (index == numPlayers) {
+            if (numPlayers == MAX_PLAYERS)
+                throw new IllegalStateException("More than " + MAX_PLAYERS + " players in one match");
+            players[numPlayers++] = player;
+        }
+        return (long) (index + 1) << offset;
+    }
+
+    private static <T> T unpack(long packed, int offset, int bits, T[] values) {
+        int value = (int) (packed >>> offset) & ((1 << bits) - 1);
+        return value == 0 ? null : values[value - 1];
+    }
+
+    /**
+     * Walks through the plays in order, starting before the first play.
+     */
+    public class Cursor {
+        private final PlayChaser playChaser = new PlayChaser(null, null, null, null, null);
+        private final PlayFoul playFoul = new PlayFoul(null, null);
+        private final PlaySeeker playSeeker = new PlaySeeker(null, null, null);
+        private int index = -1;
+        private int injury = -1;
+
+        private Cursor() {
+        }
+
+        public boolean next() {
+            if (index + 1 >= size)
+                return false;
+            index++;
+            if (getInjuryType() != null && getInjuryType() != Injury.NONE)
+                injury++;
+            return true;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public TeamType getAttackingTeamType() {
+            return team(ATTACKING_TEAM);
+        }
+
+        public Bludger getBludgerOutcome() {
+            return unpack(plays[index], BLUDGER, OUTCOME_BITS, bludgers);
+        }
+
+        public Injury getInjuryType() {
+            return unpack(plays[index], INJURY, OUTCOME_BITS, injuries);
+        }
+
+        public int getElapsedSeconds() {
+            return elapsedSeconds[index];
+        }
+
+        public int getPlayDurationSeconds() {
+            return index == 0 ? elapsedSeconds[0] : elapsedSeconds[index] - elapsedSeconds[index - 1];
+        }
+
+        public int getScoreHome() {
+            return scores[index * 2];
+        }
+
+        public int getScoreAway() {
+            return scores[index * 2 + 1];
+        }
+
+        /**
+         * @return the current play, the same object is returned for every play of the same type
+         */
+        public Play play() {
+            long packed = plays[index];
+            Play play = switch ((int) (packed >>> KIND) & ((1 << KIND_BITS) - 1)) {
+                case CHASER -> chaserPlay(playChaser.reset(null, null, null, null, null));
+                case FOUL -> {
+                    playFoul.reset(player(FOULER), team(FOULER_TEAM));
+                    yield chaserPlay(playFoul);
+                }
+                default -> {
+                    playSeeker.reset((Seeker) player(ATTACKER), (Seeker) player(DEFENDER), getAttackingTeamType());
+                    playSeeker.snitch = unpack(packed, QUAFFLE_OR_SNITCH, OUTCOME_BITS, snitches);
+                    yield playSeeker;
+                }
+            };
+
+            play.bludger = getBludgerOutcome();
+            play.injury = getInjuryType();
+            play.beaterHitter = player(BEATER_HITTER);
+            play.beaterBlocker = player(BEATER_BLOCKER);
+            play.injuredPlayer = player(INJURED_PLAYER);
+            play.injuredPlayerTeam = team(INJURED_PLAYER_TEAM);
+            play.injuryEndDate = play.injury != Injury.NONE ? LocalDate.ofEpochDay(injuryEndDays[injury]) : null;
+            play.playDurationSeconds = getPlayDurationSeconds();
+            play.scoreHome = getScoreHome();
+            play.scoreAway = getScoreAway();
+            play.matchLength = Duration.ofSeconds(getElapsedSeconds());
+            return play;
+        }
+
+        private PlayChaser chaserPlay(PlayChaser play) {
+            play.attackingTeamType = getAttackingTeamType();
+            play.defendingTeamType = team(DEFENDING_TEAM);
+            play.attacker = player(ATTACKER);
+            play.defender = player(DEFENDER);
+            play.defendingKeeper = player(KEEPER);
+            play.quaffle = unpack(plays[index], QUAFFLE_OR_SNITCH, OUTCOME_BITS, quaffles);
+            return play;
+        }
+
+        private TeamType team(int offset) {
+            return unpack(plays[index], offset, TEAM_BITS, teamTypes);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends Player> T player(int offset) {
+            return (T) unpack(plays[index], offset, PLAYER_BITS, players);
+        }
+    }
+}
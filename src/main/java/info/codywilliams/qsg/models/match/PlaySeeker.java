@@ -30,6 +30,14 @@ public class PlaySeeker extends Play {
         this.attackingTeamType = attackingTeamType;
     }
 
+    public PlaySeeker reset(Seeker seeker, Seeker otherSeeker, TeamType attackingTeamType) {
+        reset(attackingTeamType);
+        this.seeker = seeker;
+        this.otherSeeker = otherSeeker;
+        snitch = null;
+        return this;
+    }
+
     public void swapTeam() {
         attackingTeamType = switch (attackingTeamType) {
             case HOME -> TeamType.AWAY;
@@ -0,0 +1,146 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.models.player;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * The days a player is injured, stored as sorted epoch day ranges.
+ * <p>
+ * Ranges that overlap or touch are merged when added, so each range is one unbroken stretch of injured days.  Finding
+ * the range a day falls in is a binary search.
+ */
+public class InjuryHistory implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    /**
+     * Start and end epoch days of each range, both inclusive, in order
+     */
+    private long[] ranges = new long[8];
+    private int size = 0;
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of separate ranges
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param startDate first injured day
+     * @param endDate   last injured day, nothing is added if it's before the start date
+     */
+    public void add(LocalDate startDate, LocalDate endDate) {
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        if (end < start)
+            return;
+
+        // First range that ends on or after the day before the start, it's either merged or comes after the new range
+        int first = 0;
+        int high = size;
+        while (first < high) {
+            int mid = (first + high) >>> 1;
+            if (ranges[mid * 2 + 1] < start - 1)
+                first = mid + 1;
+            else
+                high = mid;
+        }
+
+        // Merge every range that starts on or before the day after the end
+        int last = first;
+        while (last < size && ranges[last * 2] <= end + 1) {
+            start = Math.min(start, ranges[last * 2]);
+            end = Math.max(end, ranges[last * 2 + 1]);
+            last++;
+        }
+
+        int removed = last - first;
+        if (removed == 0) {
+            if (size * 2 == ranges.length)
+                ranges = Arrays.copyOf(ranges, ranges.length * 2);
+            System.arraycopy(ranges, first * 2, ranges, first * 2 + 2, (size - first) * 2);
+            size++;
+        } else if (removed > 1) {
+            System.arraycopy(ranges, last * 2, ranges, first * 2 + 2, (size - last) * 2);
+            size -= removed - 1;
+        }
+        ranges[first * 2] = start;
+        ranges[first * 2 + 1] = end;
+    }
+
+    public boolean contains(LocalDate date) {
+        return find(date.toEpochDay()) >= 0;
+    }
+
+    /**
+     * @param date an injured day
+     * @return the last day of the unbroken injury the date is in, or null if the player isn't injured on the date
+     */
+    public @Nullable LocalDate findEndDate(LocalDate date) {
+        int range = find(date.toEpochDay());
+        return range < 0 ? null : LocalDate.ofEpochDay(ranges[range * 2 + 1]);
+    }
+
+    public List<Player.InjuryRange> getRanges() {
+        List<Player.InjuryRange> injuryRanges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            injuryRanges.add(new Player.InjuryRange(LocalDate.ofEpochDay(ranges[i * 2]), LocalDate.ofEpochDay(ranges[i * 2 + 1])));
+        return injuryRanges;
+    }
+
+    private int find(long day) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ranges[mid * 2 + 1] < day)
+                low = mid + 1;
+            else if (ranges[mid * 2] > day)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = 0; i < size; i++)
+            joiner.add(LocalDate.ofEpochDay(ranges[i * 2]) + "/" + LocalDate.ofEpochDay(ranges[i * 2 + 1]));
+        return joiner.toString();
+    }
+}
@@ -21,17 +21,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import javafx.beans.binding.NumberBinding;
 import javafx.beans.property.*;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.TreeSet;
 
 @JsonPropertyOrder({"name", "skillOffense", "skillDefense", "skillTeamwork", "foulLikelihood"})
 abstract public class Player implements Serializable, Comparable<Player> {
@@ -39,7 +34,7 @@ abstract public class Player implements Serializable, Comparable<Player> {
     final static int MIN = 1;
     final private StringProperty name;
     @JsonIgnore
-    final private SetProperty<LocalDate> injuryHistory;
+    final private InjuryHistory injuryHistory;
 
     final private IntegerProperty skillDefense;
     final private IntegerProperty skillOffense;
@@ -62,7 +57,7 @@ abstract public class Player implements Serializable, Comparable<Player> {
 
     public Player() {
         name = new SimpleStringProperty(this, "name", "");
-        injuryHistory = new SimpleSetProperty<>(this, "injuryHistory", FXCollections.observableSet(new TreeSet<>()));
+        injuryHistory = new InjuryHistory();
         skillDefense = new SimpleIntegerProperty(this, "skillDefense", 1);
         skillOffense = new SimpleIntegerProperty(this, "skillOffense", 1);
         skillTeamwork = new SimpleIntegerProperty(this, "skillTeamwork", 1);
@@ -75,6 +70,14 @@ abstract public class Player implements Serializable, Comparable<Player> {
         currentlyInjured = false;
     }
 
+    /**
+     * @param skill skill value between {@value MIN} and {@value MAX}
+     * @return the modifier the skill adds to dice rolls, before any injury
+     */
+    public static double skillModifier(int skill) {
+        return (double) skill / MAX;
+    }
+
     public static int validateSkill(int skillNumber) {
         if (skillNumber < MIN)
             skillNumber = MIN;
@@ -114,15 +117,8 @@ abstract public class Player implements Serializable, Comparable<Player> {
         return name;
     }
 
-    public ObservableSet<LocalDate> getInjuryHistory() {
-        return injuryHistory.get();
-    }
-
-    public void setInjuryHistory(ObservableSet<LocalDate> injuryHistory) {
-        this.injuryHistory.set(injuryHistory);
-    }
-
-    public SetProperty<LocalDate> injuryHistoryProperty() {
+    @JsonIgnore
+    public InjuryHistory getInjuryHistory() {
         return injuryHistory;
     }
 
@@ -147,61 +143,16 @@ abstract public class Player implements Serializable, Comparable<Player> {
     }
 
     public void addInjuryDate(LocalDate startDate, LocalDate endDate) {
-        LocalDate date = startDate;
-        while (date.isBefore(endDate) || date.isEqual(endDate)) {
-            injuryHistory.add(date);
-            date = date.plusDays(1);
-        }
+        injuryHistory.add(startDate, endDate);
     }
 
     public @Nullable LocalDate findInjuryEndDate(LocalDate startDate) {
-        if (!isInjured(startDate))
-            return null;
-        LocalDate date = startDate;
-        while (isInjured(date)) {
-            date = date.plusDays(1);
-        }
-
-        return date.minusDays(1);
+        return injuryHistory.findEndDate(startDate);
     }
 
     @JsonIgnore
     public List<InjuryRange> getInjuryDateRanges() {
-        List<InjuryRange> dateRanges = new ArrayList<>();
-        LocalDate startDate = null;
-        LocalDate endDate = null;
-        LocalDate firstInjury = injuryHistory.get().stream().min(Comparator.naturalOrder()).orElse(null);
-        if (firstInjury == null)
-            return List.of();
-
-        LocalDate lastInjury = injuryHistory.get().stream().max(Comparator.naturalOrder()).orElse(null);
-        if (lastInjury == null)
-            return List.of();
-
-        if (firstInjury.isEqual(lastInjury)) {
-            return List.of(new InjuryRange(firstInjury, lastInjury));
-        }
-
-        LocalDate date = firstInjury;
-
-        lastInjury = lastInjury.plusDays(2);
-        while (date.isBefore(lastInjury)) {
-            if (isInjured(date)) {
-                if (startDate == null) {
-                    startDate = date;
-                }
-                endDate = date;
-            }
-            else {
-                if (startDate != null) {
-                    dateRanges.add(new InjuryRange(startDate, endDate));
-                    startDate = null;
-                }
-            }
-
-            date = date.plusDays(1);
-        }
-        return dateRanges;
+        return injuryHistory.getRanges();
     }
 
     public int getSkillDefense() {
@@ -215,7 +166,7 @@ abstract public class Player implements Serializable, Comparable<Player> {
             skillDefense = MIN;
 
         this.skillDefense.set(skillDefense);
-        defenseModifier = (double) skillDefense / MAX;
+        defenseModifier = skillModifier(skillDefense);
     }
 
     public IntegerProperty skillDefenseProperty() {
@@ -233,7 +184,7 @@ abstract public class Player implements Serializable, Comparable<Player> {
             skillOffense = MIN;
 
         this.skillOffense.set(skillOffense);
-        offenceModifier = (double) skillOffense / MAX;
+        offenceModifier = skillModifier(skillOffense);
     }
 
     public IntegerProperty skillOffenseProperty() {
@@ -250,7 +201,7 @@ abstract public class Player implements Serializable, Comparable<Player> {
         else if (skillTeamwork < MIN)
             skillTeamwork = MIN;
         this.skillTeamwork.set(skillTeamwork);
-        teamworkModifier = (double) skillTeamwork / MAX;
+        teamworkModifier = skillModifier(skillTeamwork);
     }
 
     public IntegerProperty skillTeamworkProperty() {
@@ -267,7 +218,7 @@ abstract public class Player implements Serializable, Comparable<Player> {
         else if (foulLikelihood < MIN)
             foulLikelihood = MIN;
         this.foulLikelihood.set(foulLikelihood);
-        foulModifier = (double) foulLikelihood / MAX;
+        foulModifier = skillModifier(foulLikelihood);
     }
 
     public IntegerProperty foulLikelihoodProperty() {
@@ -0,0 +1,134 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.models.tournament;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The days a season can use, counted from the Monday of the week the tournament starts in.
+ * <p>
+ * Blacked out days are bits in a {@link BitSet} and the match day times are flattened into tables in the order they
+ * are filled every week.  Slots are numbered across the whole season, slot {@code s} is match day time
+ * {@code s % getSlotsPerWeek()} in week {@code s / getSlotsPerWeek()}.
+ */
+public class SeasonCalendar {
+    private static final int DAYS_PER_WEEK = 7;
+    private final LocalDate firstMonday;
+    private final BitSet blockedDays;
+    private final int[] slotDays;
+    private final LocalTime[] slotTimes;
+    private final int[] slotCounts;
+
+    public SeasonCalendar(TournamentOptions tournamentOptions) {
+        this(tournamentOptions.getStartDate(), tournamentOptions.getSortedMatchDayTimeList(), tournamentOptions.getBlackoutDates());
+    }
+
+    /**
+     * @param matchDayTimes match day times in the order they are filled each week
+     */
+    public SeasonCalendar(LocalDate startDate, List<MatchDayTime> matchDayTimes, List<BlackoutDates> blackoutDates) {
+        firstMonday = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        blockedDays = new BitSet();
+        for (BlackoutDates blackout : blackoutDates) {
+            if (blackout.getStart() == null || blackout.getEnd() == null)
+                continue;
+            long from = Math.max(0, dayOf(blackout.getStart()));
+            long to = dayOf(blackout.getEnd()) + 1;
+            if (from < to && from < Integer.MAX_VALUE)
+                blockedDays.set((int) from, (int) Math.min(to, Integer.MAX_VALUE));
+        }
+
+        slotDays = new int[matchDayTimes.size()];
+        slotTimes = new LocalTime[matchDayTimes.size()];
+        slotCounts = new int[matchDayTimes.size()];
+        for (int i = 0; i < matchDayTimes.size(); i++) {
+            MatchDayTime matchDayTime = matchDayTimes.get(i);
+            slotDays[i] = matchDayTime.getDayOfWeek().getValue() - 1;
+            slotTimes[i] = matchDayTime.getLocalTime();
+            slotCounts[i] = matchDayTime.getCount();
+        }
+    }
+
+    public int getSlotsPerWeek() {
+        return slotDays.length;
+    }
+
+    public boolean isBlocked(LocalDate date) {
+        long day = dayOf(date);
+        return day >= 0 && day < Integer.MAX_VALUE && blockedDays.get((int) day);
+    }
+
+    /**
+     * @return the first slot at or after the given one that isn't blacked out, weeks that are blacked out completely
+     * are skipped without looking at their slots
+     */
+    public int nextOpenSlot(int slot) {
+        int slotsPerWeek = getSlotsPerWeek();
+        if (slotsPerWeek == 0)
+            throw new IllegalStateException("No match day times to schedule on");
+
+        while (true) {
+            int week = slot / slotsPerWeek;
+            int weekStart = week * DAYS_PER_WEEK;
+            int open = blockedDays.nextClearBit(weekStart);
+            if (open >= weekStart + DAYS_PER_WEEK) {
+                // Nothing open until the week with the next clear day
+                slot = Math.max(slot, open / DAYS_PER_WEEK * slotsPerWeek);
+                continue;
+            }
+            if (!blockedDays.get(getDay(slot)))
+                return slot;
+            slot++;
+        }
+    }
+
+    /**
+     * @return days between the Monday of the first week and the slot
+     */
+    public int getDay(int slot) {
+        return slot / getSlotsPerWeek() * DAYS_PER_WEEK + slotDays[slot % getSlotsPerWeek()];
+    }
+
+    public LocalDate getDate(int slot) {
+        return firstMonday.plusDays(getDay(slot));
+    }
+
+    public LocalDateTime getStartDateTime(int slot) {
+        return slotTimes[slot % getSlotsPerWeek()].atDate(getDate(slot));
+    }
+
+    /**
+     * @return number of matches that can be played at the slot
+     */
+    public int getCount(int slot) {
+        return slotCounts[slot % getSlotsPerWeek()];
+    }
+
+    private long dayOf(LocalDate date) {
+        return ChronoUnit.DAYS.between(firstMonday, date);
+    }
+}
@@ -49,6 +49,11 @@ public abstract class Tournament {
     protected SimpleBooleanProperty teamsAssigned;
     @JsonIgnore
     protected ArrayList<Team> teamList;
+    /**
+     * Position of each team in the team list, used as the team's id while assigning teams and points
+     */
+    @JsonIgnore
+    private final Map<Team, Integer> teamIds = new IdentityHashMap<>();
 
     protected Logger logger = LoggerFactory.getLogger(Tournament.class);
 
@@ -86,6 +91,7 @@ public abstract class Tournament {
         setEndDate(lastMatchDate);
         if (teamList != null)
             teamList.clear();
+        teamIds.clear();
         teamsAssigned.set(false);
     }
 
@@ -122,24 +128,36 @@ public abstract class Tournament {
     protected abstract LocalDate calculateMatchDates();
 
     @JsonIgnore
-    protected Set<LocalDate> getBlackoutDateSet() {
-        Set<LocalDate> dates = new HashSet<>();
-
-        for (BlackoutDates blackoutDates : tournamentOptions.getBlackoutDates()) {
-            LocalDate date = blackoutDates.getStart();
-            while (date.isBefore(blackoutDates.getEnd()) || date.isEqual(blackoutDates.getEnd())) {
-                dates.add(date);
-                date = date.plusDays(1);
-            }
-        }
-
-        return dates;
+    protected SeasonCalendar getSeasonCalendar() {
+        return new SeasonCalendar(tournamentOptions);
     }
 
     public abstract TreeSet<Match> assignTeamsToMatches(List<Team> teams, long seed);
 
 
-    public abstract void assignPoints();
+    public void assignPoints() {
+        assignPoints(getMatches());
+    }
+
+    /**
+     * @param matches generated matches, their points are added to the tournament points
+     */
+    public void assignPoints(Collection<Match> matches) {
+        int[] points = new int[teamList.size()];
+        for (Match match : matches)
+            assignPoints(match, getTeamId(match.getHomeTeam()), getTeamId(match.getAwayTeam()), points);
+
+        for (int id = 0; id < points.length; id++)
+            tournamentPoints.merge(teamList.get(id).getName(), points[id], Integer::sum);
+    }
+
+    /**
+     * @param match      a generated match
+     * @param homeTeamId index of the home team in the points
+     * @param awayTeamId index of the away team in the points
+     * @param points     running totals, the points the teams earned in the match are added to it
+     */
+    public abstract void assignPoints(Match match, int homeTeamId, int awayTeamId, int[] points);
 
     public abstract String getPoints(Match match);
 
@@ -207,6 +225,13 @@ public abstract class Tournament {
         return matches.get();
     }
 
+    /**
+     * Replaces all the matches at once, listeners see a single change instead of one for every match.
+     */
+    protected void setMatches(SortedSet<Match> schedule) {
+        matches.set(FXCollections.observableSet(schedule));
+    }
+
     public SetProperty<Match> matchesProperty() {
         return matches;
     }
@@ -253,5 +278,19 @@ public abstract class Tournament {
 
     public void setTeamList(ArrayList<Team> teamList) {
         this.teamList = teamList;
+        teamIds.clear();
+        for (int id = 0; id < teamList.size(); id++)
+            teamIds.put(teamList.get(id), id);
+    }
+
+    /**
+     * @return the team's position in the team list
+     * @throws IllegalArgumentException if the team isn't in the team list
+     */
+    public int getTeamId(Team team) {
+        Integer id = teamIds.get(team);
+        if (id == null)
+            throw new IllegalArgumentException(team.getName() + " isn't in the tournament");
+        return id;
     }
 }
@@ -29,6 +29,7 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 public class Hogwarts extends Tournament {
@@ -101,7 +102,7 @@ public class Hogwarts extends Tournament {
         Team teamR = teams.get(2);
         Team teamS = teams.get(3);
 
-        teamList = new ArrayList<>(teams.subList(0, 4));
+        setTeamList(new ArrayList<>(teams.subList(0, 4)));
 
         List<Match> matchesList = new ArrayList<>(matches);
         // First Match Second Weekend November
@@ -145,18 +146,12 @@ public class Hogwarts extends Tournament {
     }
 
     @Override
-    public void assignPoints() {
-        if (matches.isEmpty())
-            return;
-
-        for(Match match: getMatches()) {
-            if (match.getWinner() == null)
-                continue; // Tie
-
-            tournamentPoints.merge(match.getHomeTeam().getName(), match.getScoreHome(), Integer::sum);
-            tournamentPoints.merge(match.getAwayTeam().getName(), match.getScoreAway(), Integer::sum);
-        }
+    public void assignPoints(Match match, int homeTeamId, int awayTeamId, int[] points) {
+        if (match.getWinner() == null)
+            return; // Tie
 
+        points[homeTeamId] += match.getScoreHome();
+        points[awayTeamId] += match.getScoreAway();
     }
 
     @Override
@@ -20,16 +20,20 @@ package info.codywilliams.qsg.models.tournament.type;
 
 import info.codywilliams.qsg.models.Team;
 import info.codywilliams.qsg.models.match.Match;
-import info.codywilliams.qsg.models.tournament.MatchDayTime;
+import info.codywilliams.qsg.models.tournament.SeasonCalendar;
 import info.codywilliams.qsg.models.tournament.Tournament;
 import info.codywilliams.qsg.models.tournament.TournamentOptions;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
 public class StraightRoundRobin extends Tournament {
+    /**
+     * Place in the circle of the team sitting out the round
+     */
+    private static final int BYE = -1;
+
     public StraightRoundRobin(TournamentOptions tournamentOptions) {
         super(tournamentOptions, TournamentType.STRAIGHT_ROUND_ROBIN);
     }
@@ -56,19 +60,13 @@ public class StraightRoundRobin extends Tournament {
 
     @Override
     protected LocalDate calculateMatchDates() {
-        List<MatchDayTime> matchDayTimeList = tournamentOptions.getSortedMatchDayTimeList();
-
-        if (matchDayTimeList.isEmpty()) return null;
+        SeasonCalendar calendar = getSeasonCalendar();
 
-        // Move template to first acceptable day of the week selected in get start date
-        LocalDate date = tournamentOptions.getStartDate();
+        if (calendar.getSlotsPerWeek() == 0) return null;
 
-        // Setup iterators
-        Iterator<MatchDayTime> matchDayIterator = matchDayTimeList.iterator();
-        Set<LocalDate> blackoutDates = getBlackoutDateSet();
-
-        // Setup All Round Set<Dates>
-        matches.clear();
+        // Build the whole schedule before publishing it, the observable set would fire for every match added
+        TreeSet<Match> schedule = new TreeSet<>();
+        LocalDate lastMatchDate = null;
 
         int totalMatches = getNumMatches();
         int totalRoundMatches = getNumMatchesPerRound();
@@ -76,98 +74,91 @@ public class StraightRoundRobin extends Tournament {
         int roundMatchCount = 0;
         int round = 1;
 
-        while (totalMatchCount < totalMatches) {
+        for (int slot = calendar.nextOpenSlot(0); totalMatchCount < totalMatches; slot = calendar.nextOpenSlot(slot + 1)) {
             if (roundMatchCount == totalRoundMatches) {
                 // Round is over, New Round
                 roundMatchCount = 0;
                 round++;
             }
 
-            if (!matchDayIterator.hasNext()) {
-                matchDayIterator = matchDayTimeList.iterator();
-                date = date.plusWeeks(1);
-            }
-
-            MatchDayTime matchDayTime = matchDayIterator.next();
-            date = nextMatchDate(date, matchDayTime.getDayOfWeek());
-            if (blackoutDates.contains(date))
+            // Every match in the slot shares its start, up to the end of the round or the season
+            int count = Math.min(calendar.getCount(slot), Math.min(totalRoundMatches - roundMatchCount, totalMatches - totalMatchCount));
+            if (count <= 0)
                 continue;
-
-            int count = matchDayTime.getCount();
-            LocalDateTime localDateTime = matchDayTime.getLocalTime().atDate(date);
-            while (count > 0) {
-                count--;
-                matches.add(new Match(roundMatchCount + 1, round, localDateTime));
-                roundMatchCount++;
-                totalMatchCount++;
-
-                if (roundMatchCount == getNumMatchesPerRound())
-                    break;
-            }
+            LocalDateTime localDateTime = calendar.getStartDateTime(slot);
+            for (int i = 0; i < count; i++)
+                schedule.add(new Match(roundMatchCount + i + 1, round, localDateTime));
+            roundMatchCount += count;
+            totalMatchCount += count;
+            if (lastMatchDate == null || localDateTime.toLocalDate().isAfter(lastMatchDate))
+                lastMatchDate = localDateTime.toLocalDate();
         }
 
-        return matches.stream()
-                .map(match -> match.getStartDateTime().toLocalDate())
-                .max(Comparator.naturalOrder())
-                .orElse(tournamentOptions.getStartDate());
+        setMatches(schedule);
+        return lastMatchDate == null ? tournamentOptions.getStartDate() : lastMatchDate;
     }
 
     @Override
     public TreeSet<Match> assignTeamsToMatches(List<Team> teams, long seed) {
-        teamList = new ArrayList<>(teams);
+        setTeamList(new ArrayList<>(teams));
         ArrayList<Team> teamArrayList = new ArrayList<>(teams);
         Random rand = new Random(seed + "TeamShuffle".hashCode());
 
         Collections.shuffle(teamArrayList, rand);
 
-        // Round Robin Circle Method
-        if (teamArrayList.size() % 2 != 0)
-            teamArrayList.add(null);
+        // Round Robin Circle Method, on team ids with a bye when there is an odd number of teams.  Each round's
+        // pairings are read straight from the starting circle, see teamAt
+        int[] circle = new int[teamArrayList.size() + teamArrayList.size() % 2];
+        Arrays.fill(circle, BYE);
+        for (int i = 0; i < teamArrayList.size(); i++)
+            circle[i] = getTeamId(teamArrayList.get(i));
 
         int round = 1;
         int aIdx = 0;
-        int bIdx = teamArrayList.size() - 1;
+        int bIdx = circle.length - 1;
         int half = numRounds.get() / 2;
-        HashMap<String, Integer> homeTeamTimes = new HashMap<>();
-        HashSet<String> matcheSet = new HashSet<>();
+        int numTeams = teamList.size();
+        int[] homeTeamTimes = new int[numTeams];
+        // One bit for every home and away pairing
+        long[] pairings = new long[(int) (((long) numTeams * numTeams + 63) / 64)];
         boolean reset = false;
         for (Match match : getMatches()) {
             if (match.getRound() != round) {
                 round++;
                 aIdx = 0;
-                bIdx = teamArrayList.size() - 1;
-                Collections.rotate(teamArrayList.subList(1, teamArrayList.size()), 1);
+                bIdx = circle.length - 1;
             }
-            if (teamArrayList.get(aIdx) == null || teamArrayList.get(bIdx) == null) {
+            int teamA = teamAt(circle, round - 1, aIdx);
+            int teamB = teamAt(circle, round - 1, bIdx);
+            if (teamA == BYE || teamB == BYE) {
                 aIdx++;
                 bIdx--;
+                teamA = teamAt(circle, round - 1, aIdx);
+                teamB = teamAt(circle, round - 1, bIdx);
             }
 
+            int home;
+            int away;
             // Balance out the home and away matches.  Reverse for the second half if home and away
             if (getType() == TournamentType.STRAIGHT_ROUND_ROBIN || (round <= half && getType() == TournamentType.STRAIGHT_ROUND_ROBIN_HOME_AWAY)) {
-                int aCount = homeTeamTimes.getOrDefault(teamArrayList.get(aIdx).getName(), 0);
-                int bCount = homeTeamTimes.getOrDefault(teamArrayList.get(bIdx).getName(), 0);
-
-                assignTeams(aCount < bCount, match, teamArrayList.get(aIdx), teamArrayList.get(bIdx), homeTeamTimes);
+                home = assignTeams(homeTeamTimes[teamA] < homeTeamTimes[teamB], match, teamA, teamB, homeTeamTimes);
+                away = home == teamA ? teamB : teamA;
             } else {
                 if (!reset && round == half + 1) {
-                    homeTeamTimes.clear();
+                    Arrays.fill(homeTeamTimes, 0);
                     reset = true;
                 }
-                int aCount = homeTeamTimes.getOrDefault(teamArrayList.get(aIdx).getName(), 0);
-                int bCount = homeTeamTimes.getOrDefault(teamArrayList.get(bIdx).getName(), 0);
 
                 // Reverse comparison and teamA and teamB so that when counts are equal or different behavior is reversed from above
-                assignTeams(aCount > bCount, match, teamArrayList.get(bIdx), teamArrayList.get(aIdx), homeTeamTimes);
+                home = assignTeams(homeTeamTimes[teamA] > homeTeamTimes[teamB], match, teamB, teamA, homeTeamTimes);
+                away = home == teamA ? teamB : teamA;
             }
 
-            boolean exists = !matcheSet.add(match.getHomeTeam().getName() + match.getAwayTeam().getName());
-            if(exists) {
+            if (!addPairing(pairings, (long) home * numTeams + away)) {
                 Team temp = match.getHomeTeam();
                 match.setHomeTeam(match.getAwayTeam());
                 match.setAwayTeam(temp);
-                exists = matcheSet.add(match.getHomeTeam().getName() + match.getAwayTeam().getName());
-                if (exists)
+                if (!addPairing(pairings, (long) away * numTeams + home))
                     logger.error("Swapped Teams also already exists, {} {}", match.getHomeTeam().getName(), match.getAwayTeam().getName());
             }
 
@@ -198,23 +189,22 @@ public class StraightRoundRobin extends Tournament {
     }
 
     @Override
-    public void assignPoints() {
-        if (matches.isEmpty())
-            return;
+    public void assignPoints(Match match, int homeTeamId, int awayTeamId, int[] points) {
+        if (match.getWinner() == null)
+            return; // Tie
 
-        for (Match match : getMatches()) {
-            if (match.getWinner() == null)
-                continue; // Tie
-
-            switch (match.getWinner()) {
-                case HOME -> tournamentPoints.merge(match.getHomeTeam().getName(), Integer.valueOf(getPoints(match)), Integer::sum);
-                case AWAY -> tournamentPoints.merge(match.getAwayTeam().getName(), Integer.valueOf(getPoints(match)), Integer::sum);
-            }
+        switch (match.getWinner()) {
+            case HOME -> points[homeTeamId] += winnerPoints(match);
+            case AWAY -> points[awayTeamId] += winnerPoints(match);
         }
     }
 
     @Override
     public String getPoints(Match match) {
+        return String.valueOf(winnerPoints(match));
+    }
+
+    private int winnerPoints(Match match) {
         int diff = match.getScoreHome() - match.getScoreAway();
         diff = diff < 0 ? -diff : diff;
         /*
@@ -226,29 +216,49 @@ public class StraightRoundRobin extends Tournament {
             >=150 -> 7 points
          */
         if (diff == 0)
-            return String.valueOf(0);
+            return 0;
         else if (diff < 50)
-            return String.valueOf(2);
+            return 2;
         else if (diff < 100)
-            return String.valueOf(3);
+            return 3;
         else if (diff < 150)
-            return String.valueOf(5);
+            return 5;
         else
-            return String.valueOf(7);
+            return 7;
     }
 
-    private void assignTeams(boolean flag, Match match, Team aTeam, Team bTeam, Map<String, Integer> homeTeamTimes) {
-        if (flag) {
-            match.setHomeTeam(aTeam);
-            match.setLocation(aTeam.getHome());
-            match.setAwayTeam(bTeam);
-            homeTeamTimes.merge(aTeam.getName(), 1, Integer::sum);
-        } else {
-            match.setHomeTeam(bTeam);
-            match.setLocation(bTeam.getHome());
-            match.setAwayTeam(aTeam);
-            homeTeamTimes.merge(bTeam.getName(), 1, Integer::sum);
-        }
+    /**
+     * @return id of the team made the home team
+     */
+    private int assignTeams(boolean flag, Match match, int aTeam, int bTeam, int[] homeTeamTimes) {
+        int home = flag ? aTeam : bTeam;
+        int away = flag ? bTeam : aTeam;
+        match.setHomeTeam(teamList.get(home));
+        match.setLocation(teamList.get(home).getHome());
+        match.setAwayTeam(teamList.get(away));
+        homeTeamTimes[home]++;
+        return home;
+    }
+
+    /**
+     * Berger table lookup of the team at a place in the circle once it has been rotated a number of times.  The first
+     * place never moves and every other team moves one place along per rotation, so no round has to be built.
+     */
+    private static int teamAt(int[] circle, int rotations, int place) {
+        if (place == 0)
+            return circle[0];
+        return circle[1 + Math.floorMod(place - 1 - rotations, circle.length - 1)];
+    }
+
+    /**
+     * @return false if the pairing was already set
+     */
+    private static boolean addPairing(long[] pairings, long pairing) {
+        int word = (int) (pairing >>> 6);
+        long bit = 1L << pairing;
+        boolean added = (pairings[word] & bit) == 0;
+        pairings[word] |= bit;
+        return added;
     }
 
     private void swapMatchTeams(Match first, Match other) {
@@ -263,16 +273,4 @@ public class StraightRoundRobin extends Tournament {
         other.setLocation(tempHome.getHome());
         other.setAwayTeam(tempAway);
     }
-
-
-    private LocalDate nextMatchDate(LocalDate currentDate, DayOfWeek nextDay) {
-        DayOfWeek currentDay = currentDate.getDayOfWeek();
-
-        int difference = nextDay.getValue() - currentDay.getValue();
-        if (difference == 0)
-            return currentDate;
-
-        return currentDate.plusDays(difference);
-
-    }
 }
@@ -0,0 +1,165 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.player.*;
+import info.codywilliams.qsg.service.SimulationSnapshot.PlayerData;
+import info.codywilliams.qsg.service.SimulationSnapshot.TeamData;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The players each team puts out for a match, kept per team and only sorted again when the team's injuries change.
+ * <p>
+ * A lineup is the healthy players followed by the injured players, each group in ascending
+ * {@link Player#compareTo(Player)} order, so the players with the lowest modifiers are the ones put out.  That order is
+ * kept from the original generator so results don't change.  It depends on which players are injured on the match
+ * date and how much their injuries reduce their skills, so each chart remembers both for the lineup it last sorted.
+ * Like {@link PlayerInjuries}, a team's chart is only used by the team's own matches, which are generated one after
+ * another.
+ */
+class DepthCharts {
+    private final PlayerInjuries injuries;
+    private final DepthChart[] charts;
+
+    DepthCharts(SimulationSnapshot snapshot, PlayerInjuries injuries) {
+        this.injuries = injuries;
+        charts = new DepthChart[snapshot.getTeams().size()];
+    }
+
+    /**
+     * Marks the team's players that are injured on the date as currently injured, and returns the team's lineup.
+     */
+    DepthChart get(TeamData team, LocalDate date) {
+        DepthChart chart = charts[team.index()];
+        if (chart == null) {
+            chart = new DepthChart(team);
+            charts[team.index()] = chart;
+        }
+        chart.update(date);
+        return chart;
+    }
+
+    final class DepthChart {
+        /**
+         * Beaters, chasers, keepers then seekers, in roster order
+         */
+        private final List<PlayerData<?>> players = new ArrayList<>();
+        private final TeamData team;
+        private final boolean[] injured;
+        private final double[] divisors;
+        private boolean sorted = false;
+        private List<PlayerData<Beater>> beaters;
+        private List<PlayerData<Chaser>> chasers;
+        private PlayerData<Keeper> keeper;
+        private PlayerData<Seeker> seeker;
+
+        private DepthChart(TeamData team) {
+            this.team = team;
+            players.addAll(team.beaters());
+            players.addAll(team.chasers());
+            players.addAll(team.keepers());
+            players.addAll(team.seekers());
+            injured = new boolean[players.size()];
+            divisors = new double[players.size()];
+        }
+
+        private void update(LocalDate date) {
+            boolean changed = !sorted;
+            for (int i = 0; i < injured.length; i++) {
+                PlayerData<?> player = players.get(i);
+                boolean isInjured = injuries.isInjured(player, date);
+                injuries.setCurrentlyInjured(player, isInjured);
+                // The divisor only changes an injured player's skills
+                double divisor = isInjured ? injuries.getInjuryDivisor(player) : 0;
+                if (isInjured != injured[i] || divisor != divisors[i]) {
+                    injured[i] = isInjured;
+                    divisors[i] = divisor;
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                beaters = List.copyOf(sort(team.beaters()).subList(0, MatchGeneratorV1.BEATERS));
+                chasers = List.copyOf(sort(team.chasers()).subList(0, MatchGeneratorV1.CHASERS));
+                keeper = sort(team.keepers()).get(0);
+                seeker = sort(team.seekers()).get(0);
+                sorted = true;
+            }
+        }
+
+        private <T extends Player> List<PlayerData<T>> sort(List<PlayerData<T>> positionPlayers) {
+            ArrayList<PlayerData<T>> uninjuredPlayers = new ArrayList<>();
+            ArrayList<PlayerData<T>> injuredPlayers = new ArrayList<>();
+
+            for (PlayerData<T> player : positionPlayers) {
+                if (injuries.isCurrentlyInjured(player))
+                    injuredPlayers.add(player);
+                else
+                    uninjuredPlayers.add(player);
+            }
+
+            uninjuredPlayers.sort(injuries::compare);
+            injuredPlayers.sort(injuries::compare);
+            uninjuredPlayers.addAll(injuredPlayers);
+
+            return uninjuredPlayers;
+        }
+
+        /**
+         * Marks the team's players as not injured again once the match is over.
+         */
+        void cleanUp() {
+            // Players injured during the match are currently injured too, not just the ones in the chart
+            for (PlayerData<?> player : players)
+                injuries.setCurrentlyInjured(player, false);
+        }
+
+        /**
+         * @return the players injured on the date of the last update, in roster order
+         */
+        List<PlayerData<?>> getInjuredPlayers() {
+            List<PlayerData<?>> injuredPlayers = new ArrayList<>();
+            for (int i = 0; i < injured.length; i++) {
+                if (injured[i])
+                    injuredPlayers.add(players.get(i));
+            }
+            return injuredPlayers;
+        }
+
+        List<PlayerData<Beater>> getBeaters() {
+            return beaters;
+        }
+
+        List<PlayerData<Chaser>> getChasers() {
+            return chasers;
+        }
+
+        PlayerData<Keeper> getKeeper() {
+            return keeper;
+        }
+
+        PlayerData<Seeker> getSeeker() {
+            return seeker;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Receives the progress of generating a season's output, and can stop it between matches and between pages.
+ * <p>
+ * Matches are simulated on several threads, so {@link #update(Step, int, int)} has to be thread safe.
+ */
+public interface GenerationProgress {
+    GenerationProgress NONE = (step, done, total) -> {
+    };
+
+    /**
+     * @param step  what's being worked on
+     * @param done  number of matches or pages finished in this step
+     * @param total number of matches or pages in this step
+     */
+    void update(Step step, int done, int total);
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * @throws CancellationException if generating the output has been cancelled
+     */
+    default void checkCancelled() {
+        if (isCancelled())
+            throw new CancellationException("Generating output was cancelled");
+    }
+
+    /**
+     * Changes the teams or tournament, like copying the injuries back to the players or setting the points.  Only
+     * returns once the update is done, so later steps see it.
+     *
+     * @param update change to make on the thread that owns the model, this one unless overridden
+     */
+    default void updateModel(Runnable update) {
+        update.run();
+    }
+
+    enum Step {
+        SIMULATING_MATCHES("app.output.simulatingMatches"),
+        BUILDING_PAGES("app.output.buildingPages"),
+        WRITING_PAGES("app.output.writingPages");
+
+        public final String key;
+
+        Step(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Results of simulated matches, so generating the same season again doesn't simulate matches that can't have changed.
+ * <p>
+ * A result is found by the generator version, the match seed and the state of both rosters before the match, which
+ * together decide everything about the match.  Results are kept as bytes in a least recently used map.  The match seed
+ * depends on the teams' identity hash codes, so results are only found again by the same run of the application and
+ * aren't worth keeping on disk.
+ */
+public class MatchCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private final Map<Key, byte[]> results;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public MatchCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of results kept in memory
+     */
+    public MatchCache(int capacity) {
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the result stored for the key, or null if there isn't one
+     */
+    @Nullable
+    byte[] get(Key key) {
+        byte[] result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        (result == null ? misses : hits).incrementAndGet();
+        return result;
+    }
+
+    void put(Key key, byte[] result) {
+        synchronized (results) {
+            results.put(key, result);
+        }
+    }
+
+    /**
+     * Empties the stored results.
+     */
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @param version     generator version
+     * @param matchSeed   seed of the match
+     * @param recordPlays whether the plays are kept, results without plays can't be used when they're needed
+     * @param rosters     skills and injury state of every player on both teams before the match
+     */
+    record Key(int version, long matchSeed, boolean recordPlays, long[] rosters) {
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+
+            return version == key.version && matchSeed == key.matchSeed && recordPlays == key.recordPlays
+                    && Arrays.equals(rosters, key.rosters);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = version;
+            result = 31 * result + Long.hashCode(matchSeed);
+            result = 31 * result + Boolean.hashCode(recordPlays);
+            result = 31 * result + Arrays.hashCode(rosters);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{version=" + version + ", matchSeed=" + matchSeed + ", recordPlays=" + recordPlays + "}";
+        }
+    }
+}
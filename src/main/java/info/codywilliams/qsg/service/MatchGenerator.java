@@ -19,6 +19,7 @@
 package info.codywilliams.qsg.service;
 
 import info.codywilliams.qsg.models.Team;
+import info.codywilliams.qsg.models.match.Match;
 import info.codywilliams.qsg.models.tournament.Tournament;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,10 +28,14 @@ import java.util.List;
 
 public interface MatchGenerator {
     Logger logger = LoggerFactory.getLogger(MatchGenerator.class);
+    int LATEST_VERSION = 4;
 
     static MatchGenerator create(long seed, int version) {
         logger.info("Creating MatchGenerator Version {} with seed: {}", version, seed);
         return switch (version) {
+            case 2 -> new MatchGeneratorV2(seed);
+            case 3 -> new MatchGeneratorV3(seed);
+            case 4 -> new MatchGeneratorV4(seed);
             default -> new MatchGeneratorV1(seed);
         };
     }
@@ -39,7 +44,58 @@ public interface MatchGenerator {
         return create(seed, 1);
     }
 
+    /**
+     * Simulates every match of the tournament on a snapshot of the teams, and copies the players' injuries back to
+     * the teams once all matches are done.
+     */
     void generateMatches(Tournament tournament, List<Team> teamList);
 
+    /**
+     * Simulates the matches of a season prepared on the thread that owns the model.  The injuries and tournament
+     * points are written back through the progress's {@link GenerationProgress#updateModel(Runnable)}.
+     *
+     * @param season teams and matches copied before generating starts
+     */
+    void generateMatches(PreparedSeason season);
+
+    /**
+     * Sets the teams {@link #generateMatch(Match)} reads, and starts every player without injuries.
+     *
+     * @param snapshot snapshot taken of the teams of the matches that will be generated
+     */
+    void setSnapshot(SimulationSnapshot snapshot);
+
+    /**
+     * Simulates a single match on the snapshot set with {@link #setSnapshot(SimulationSnapshot)}.  The players'
+     * injuries from earlier matches carry over, so matches that share a team have to be generated in order.  The
+     * injuries stay in the generator, they aren't copied to the players.
+     *
+     * @param match match with both teams assigned
+     */
+    void generateMatch(Match match);
+
+    /**
+     * @param recordPlays false to only update the match totals, used when the plays won't be shown
+     */
+    void setRecordPlays(boolean recordPlays);
+
+    /**
+     * @param cache where simulated matches are looked up before simulating them and stored afterwards, or null to
+     *              always simulate
+     */
+    void setCache(MatchCache cache);
+
+    /**
+     * @param history matches from the last generation, kept as they are when nothing they read has changed, or null
+     *                to always simulate
+     */
+    void setHistory(SimulationHistory history);
+
+    /**
+     * @param progress told about every match {@link #generateMatches(Tournament, List)} finishes, and checked for
+     *                 cancellation before each match starts
+     */
+    void setProgress(GenerationProgress progress);
+
     int getVersion();
 }
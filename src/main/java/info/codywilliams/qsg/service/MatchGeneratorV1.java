@@ -22,16 +22,21 @@ import info.codywilliams.qsg.models.Team;
 import info.codywilliams.qsg.models.match.*;
 import info.codywilliams.qsg.models.player.*;
 import info.codywilliams.qsg.models.tournament.Tournament;
+import info.codywilliams.qsg.service.SimulationSnapshot.PlayerData;
+import info.codywilliams.qsg.service.SimulationSnapshot.TeamData;
 import org.slf4j.MDC;
 
+import java.io.*;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
 import java.util.*;
-import java.util.function.Consumer;
-import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.random.RandomGenerator;
+
+import static info.codywilliams.qsg.service.SimulationTrace.bits;
 
 public class MatchGeneratorV1 implements MatchGenerator {
     final static int BEATERS = 2;
@@ -40,14 +45,52 @@ public class MatchGeneratorV1 implements MatchGenerator {
     final static long[] SNITCH_CHANCE_RANGE_STARTING_VALUE = new long[]{0, 100};
     final static long[] SNITCH_RELEASE_MINUTES_RANGE = new long[]{15, 30};
     final static long SNITCH_BASE_INTERACTION_RANGE = 10;
+    /**
+     * Snitch chances outside the interaction range that are multiples of this still see the snitch
+     */
+    final static int SNITCH_SEEN_DIVISOR = 13;
+    final static int DICE = 3;
+    final static long DICE_ORIGIN = 1;
+    final static long DICE_BOUND = 48;
+    final static int PERCENTILE_ORIGIN = 1;
+    final static int PERCENTILE_BOUND = 100;
     final long seed;
-    final Random random;
+    /**
+     * The running thread's trace, only set while a match is being generated with tracing on
+     */
+    SimulationTrace trace;
+    RandomGenerator random;
+    /**
+     * When false the plays are only added to the match totals and not to the match's play log
+     */
+    boolean recordPlays = true;
+    GenerationProgress progress = GenerationProgress.NONE;
+    MatchCache cache;
+    SimulationHistory history;
+    /**
+     * Every player on both teams, home team first in snapshot order, the ids used for players in cached results and
+     * the history
+     */
+    List<PlayerData<?>> matchPlayers;
+    /**
+     * Injuries added during the match, only kept when the match is cached or kept in the history
+     */
+    final List<SimulationHistory.Injury> addedInjuries = new ArrayList<>();
+    /**
+     * The match's play log copies each play when it's added, so the same play objects are used for every play
+     */
+    final PlayChaser reusedPlayChaser = new PlayChaser(null, null, null, null, null);
+    final PlayFoul reusedPlayFoul = new PlayFoul(null, null);
+    final PlaySeeker reusedPlaySeeker = new PlaySeeker(null, null, null);
+    SimulationSnapshot snapshot;
+    PlayerInjuries injuries;
+    DepthCharts depthCharts;
     Match match;
     MatchTeam homeTeam;
     MatchTeam awayTeam;
     MatchTeam attackingTeam;
     MatchTeam defendingTeam;
-    Chaser attacker;
+    PlayerData<Chaser> attacker;
     /**
      * The snitch value that will result in an attempt to catch the snitch, doesn't change
      */
@@ -73,39 +116,139 @@ public class MatchGeneratorV1 implements MatchGenerator {
 
     public MatchGeneratorV1(long seed) {
         this.seed = seed;
-        random = new Random();
     }
 
     public void generateMatches(Tournament tournament, List<Team> teamList) {
-        if (!tournament.isTeamsAssigned())
-            tournament.assignTeamsToMatches(teamList, seed);
-
-        for (Team team : teamList)
-            tournament.getTournamentPoints().put(team.getName(), 0);
+        generateMatches(PreparedSeason.of(tournament, teamList, seed));
+    }
 
-        MatchGeneratorV1 matchGenerator = new MatchGeneratorV1(seed);
+    public void generateMatches(PreparedSeason season) {
         long now = System.currentTimeMillis();
 
-        tournament.getTeamList().forEach(Team::clear);
-        for (Match match : tournament.getMatches()) {
-            matchGenerator.run(match);
-        }
+        setSnapshot(season.snapshot());
+        List<Match> matches = season.matches();
+        if (history != null)
+            history.retainAll(matches);
+        int total = matches.size();
+        int[] done = {0};
+        // Each match gets its own generator, the scheduler only runs matches at the same time when they share no teams
+        new MatchScheduler().run(matches, match -> {
+            progress.checkCancelled();
+            generateMatch(match);
+            // Counted and reported together so the progress never goes backwards
+            synchronized (done) {
+                progress.update(GenerationProgress.Step.SIMULATING_MATCHES, ++done[0], total);
+            }
+        });
         now = System.currentTimeMillis() - now;
-        tournament.assignPoints();
+        progress.updateModel(() -> {
+            injuries.copyToPlayers();
+            Tournament tournament = season.tournament();
+            for (Team team : season.teams())
+                tournament.getTournamentPoints().put(team.getName(), 0);
+            tournament.assignPoints(matches);
+        });
         logger.info("{} seconds to generate matches", now / 1000.0);
+        if (history != null)
+            logger.info("Match history: {} kept, {} simulated", history.getReused(), history.getSimulated());
+        if (cache != null)
+            logger.info("Match cache: {} hits, {} misses", cache.getHits(), cache.getMisses());
+    }
+
+    public void setSnapshot(SimulationSnapshot snapshot) {
+        this.snapshot = snapshot;
+        injuries = new PlayerInjuries(snapshot);
+        depthCharts = new DepthCharts(snapshot, injuries);
+    }
+
+    public void generateMatch(Match match) {
+        if (snapshot == null)
+            throw new IllegalStateException("A simulation snapshot has to be set before generating matches");
+
+        MatchGeneratorV1 matchGenerator = newMatchGenerator();
+        matchGenerator.setRecordPlays(recordPlays);
+        matchGenerator.setCache(cache);
+        matchGenerator.setHistory(history);
+        matchGenerator.snapshot = snapshot;
+        matchGenerator.injuries = injuries;
+        matchGenerator.depthCharts = depthCharts;
+        matchGenerator.run(match);
+    }
+
+    public void setRecordPlays(boolean recordPlays) {
+        this.recordPlays = recordPlays;
+    }
+
+    public void setCache(MatchCache cache) {
+        this.cache = cache;
+    }
+
+    public void setHistory(SimulationHistory history) {
+        this.history = history;
+    }
+
+    public void setProgress(GenerationProgress progress) {
+        this.progress = progress;
     }
 
     public int getVersion() {
         return 1;
     }
 
-    private void run(Match match) {
+    /**
+     * @return a generator of the same version and seed, used to simulate a single match
+     */
+    MatchGeneratorV1 newMatchGenerator() {
+        return new MatchGeneratorV1(seed);
+    }
+
+    /**
+     * @param matchSeed seed derived from the match and the global seed
+     * @return the random number generator used for the whole match
+     */
+    RandomGenerator createRandomGenerator(long matchSeed) {
+        return new Random(matchSeed);
+    }
+
+    void run(Match match) {
         this.match = match;
-        MDC.put("title", this.match.getHomeTeam().getName() + " vs " + this.match.getAwayTeam().getName());
+        TeamData home = snapshot.getTeam(match.getHomeTeam());
+        TeamData away = snapshot.getTeam(match.getAwayTeam());
+        MDC.put("title", home.name() + " vs " + away.name());
         logger.info("Generating Match");
-        setUpMatch();
+        long matchSeed = matchSeed(home, away);
+        matchPlayers = matchPlayers(home, away);
+        MatchCache.Key key = cache == null && history == null ? null : matchKey(matchSeed);
+        if (history != null) {
+            List<SimulationHistory.Injury> previousInjuries = history.findUnchanged(match, key, players());
+            if (previousInjuries != null) {
+                logger.info("Match is unchanged since it was last generated");
+                addInjuries(previousInjuries);
+                return;
+            }
+            history.remove(match);
+        }
+        if (cache != null && loadFromCache(key, home, away)) {
+            logger.info("Loaded match from cache");
+            rememberMatch(key);
+            cleanUp();
+            return;
+        }
+
+        if (SimulationTrace.ENABLED) {
+            trace = SimulationTrace.forCurrentThread();
+            trace.reset();
+        }
+        setUpMatch(home, away, matchSeed);
         generate();
-        logger.info(this.match.outcomesToString());
+        match.getPlays().trimToSize();
+        if (cache != null)
+            storeInCache(key);
+        rememberMatch(key);
+        if (SimulationTrace.ENABLED && logger.isTraceEnabled())
+            trace.dump(logger::trace);
+        if (logger.isInfoEnabled())
+            logger.info(this.match.outcomesToString());
         cleanUp();
     }
 
@@ -114,7 +257,7 @@ public class MatchGeneratorV1 implements MatchGenerator {
         awayTeam.cleanUpTeam();
     }
 
-    private void setMatchSeed() {
+    private long matchSeed(TeamData home, TeamData away) {
         LocalDateTime startDateTime = match.getStartDateTime();
         // Generate seed for specific match
         // Any change to match date, match round, or teams playing will result in a different seed
@@ -124,28 +267,22 @@ public class MatchGeneratorV1 implements MatchGenerator {
         matchSeed |= startDateTime.getMinute();
         matchSeed |= match.getNumber() + match.getRound();
         matchSeed |= matchSeed << 34;
-        matchSeed ^= ((long) match.getHomeTeam().hashCode() << 32) | match.getAwayTeam().hashCode();
+        matchSeed ^= ((long) home.seedHash() << 32) | away.seedHash();
         matchSeed ^= seed;
-        random.setSeed(matchSeed);
-        logger.info("Match Seed: {}", matchSeed);
+        return matchSeed;
     }
 
-    private void setUpMatch() {
+    private void setUpMatch(TeamData home, TeamData away, long matchSeed) {
         match.clear();
-        setMatchSeed();
-
-        homeTeam = new MatchTeam(match.getHomeTeam(), TeamType.HOME, match.getStartDateTime().toLocalDate());
-        awayTeam = new MatchTeam(match.getAwayTeam(), TeamType.AWAY, match.getStartDateTime().toLocalDate());
-
-        match.setHomeTeamRoster(homeTeam.getMatchRoster());
-        match.setAwayTeamRoster(awayTeam.getMatchRoster());
-        setInjuredPlayers(match.getHomeTeam(), TeamType.HOME, match.getStartDateTime().toLocalDate());
-        setInjuredPlayers(match.getAwayTeam(), TeamType.AWAY, match.getStartDateTime().toLocalDate());
+        random = createRandomGenerator(matchSeed);
+        logger.info("Match Seed: {}", matchSeed);
+        addedInjuries.clear();
+        setUpTeams(home, away);
 
         // Snitch values
         snitchValue = randomNumber(SNITCH_VALUE_RANGE);
         // Combine the skills of the two teams seekers, and take the average
-        double seekerCombinedSkill = (homeTeam.getSeeker().getOffenceModifier() + awayTeam.getSeeker().getOffenceModifier()) / 2;
+        double seekerCombinedSkill = (offence(homeTeam.getSeeker()) + offence(awayTeam.getSeeker())) / 2;
         long snitchRangeAdjuster = (long) ((SNITCH_BASE_INTERACTION_RANGE / 2) * (1.0 + seekerCombinedSkill));
 
         // Use above value to set the snitch range
@@ -159,21 +296,20 @@ public class MatchGeneratorV1 implements MatchGenerator {
         hours = 0;
     }
 
-    private void setInjuredPlayers(Team team, TeamType teamType, LocalDate date) {
-        Predicate<Player> filterInjured = player -> player.isInjured(date);
-        Consumer<Player> addInjuredToMatch = player -> this.match.addInjuredBeforePlayer(teamType, player);
-        team.getBeaters().stream()
-                .filter(filterInjured)
-                .forEach(addInjuredToMatch);
-        team.getChasers().stream()
-                .filter(filterInjured)
-                .forEach(addInjuredToMatch);
-        team.getKeepers().stream()
-                .filter(filterInjured)
-                .forEach(addInjuredToMatch);
-        team.getSeekers().stream()
-                .filter(filterInjured)
-                .forEach(addInjuredToMatch);
+    private void setUpTeams(TeamData home, TeamData away) {
+        LocalDate date = match.getStartDateTime().toLocalDate();
+        homeTeam = new MatchTeam(depthCharts.get(home, date), TeamType.HOME, injuries);
+        awayTeam = new MatchTeam(depthCharts.get(away, date), TeamType.AWAY, injuries);
+
+        match.setHomeTeamRoster(homeTeam.getMatchRoster());
+        match.setAwayTeamRoster(awayTeam.getMatchRoster());
+        setInjuredPlayers(homeTeam, date);
+        setInjuredPlayers(awayTeam, date);
+    }
+
+    private void setInjuredPlayers(MatchTeam team, LocalDate date) {
+        for (PlayerData<?> player : team.depthChart.getInjuredPlayers())
+            match.addInjuredBeforePlayer(team.type, player.name(), injuries.findInjuryEndDate(player, date));
     }
 
     private void generate() {
@@ -192,11 +328,7 @@ public class MatchGeneratorV1 implements MatchGenerator {
             chaserRound();
 
             // Seeker Round
-            int loops = seekerRoundLoops;
-            while (!snitchCaught && loops > 0) {
-                snitchCaught = seekerRound();
-                loops--;
-            }
+            snitchCaught = seekerRounds(seekerRoundLoops);
 
             long h = hours;
             hours = match.getMatchLength().toHours();
@@ -218,17 +350,39 @@ public class MatchGeneratorV1 implements MatchGenerator {
 
     }
 
-    Chaser getRandomChaser(MatchTeam team) {
+    PlayerData<Chaser> getRandomChaser(MatchTeam team) {
         int chaserNum = randomNumber(0, 2);
         return team.getChaser(chaserNum);
     }
 
-    Beater getRandomBeater(MatchTeam team) {
+    PlayerData<Beater> getRandomBeater(MatchTeam team) {
         int beaterNum = randomNumber(0, 1);
         return team.getBeater(beaterNum);
     }
 
-    void swapTeams(Chaser newAttacker) {
+    PlayChaser newPlayChaser(TeamType attackingTeamType, TeamType defendingTeamType, Chaser attacker, Chaser defender, Keeper keeper) {
+        return reusedPlayChaser.reset(attackingTeamType, defendingTeamType, attacker, defender, keeper);
+    }
+
+    PlayFoul newPlayFoul(Player fouler, TeamType foulerTeamType) {
+        return reusedPlayFoul.reset(fouler, foulerTeamType);
+    }
+
+    PlaySeeker newPlaySeeker(Seeker seeker, Seeker otherSeeker, TeamType attackingTeamType) {
+        return reusedPlaySeeker.reset(seeker, otherSeeker, attackingTeamType);
+    }
+
+    /**
+     * Adds a finished play to the match, or only to the match totals when plays aren't being recorded.
+     */
+    void addPlay(Play play) {
+        if (recordPlays)
+            match.addPlay(play);
+        else
+            match.addPlayToTotals(play);
+    }
+
+    void swapTeams(PlayerData<Chaser> newAttacker) {
         MatchTeam temp = attackingTeam;
         attackingTeam = defendingTeam;
         defendingTeam = temp;
@@ -243,21 +397,23 @@ public class MatchGeneratorV1 implements MatchGenerator {
      * @param targetTeam Team of the targeted player
      * @return whether the target was hit or not.
      */
-    boolean bludgerHit(Play play, Beater beater, Player target, MatchTeam beaterTeam, MatchTeam targetTeam) {
-        play.setBeaterHitter(beater);
+    boolean bludgerHit(Play play, PlayerData<Beater> beater, PlayerData<?> target,
+                       MatchTeam beaterTeam, MatchTeam targetTeam) {
+        play.setBeaterHitter(beater.player());
         int bludgerPlay = randomNumber(1, 3);
         boolean outcome = false;
 
         if (bludgerPlay % 3 == 0) {
-            play.setBeaterBlocker(getRandomBeater(targetTeam));
+            PlayerData<Beater> blocker = getRandomBeater(targetTeam);
+            play.setBeaterBlocker(blocker.player());
 
-            int hit = modifiedRandomNumbersSum(beater.getOffenceModifier(), beaterTeam.getBeatersSkills().getAvgOffenseModifier() * beaterTeam.getBeatersSkills().getAvgTeamworkModifier());
-            int block = modifiedRandomNumbersSum(targetTeam.getBeatersSkills().getAvgDefenseModifier() * targetTeam.getBeatersSkills().getAvgTeamworkModifier());
-            int miss = modifiedRandomNumbersSum(target.getDefenseModifier(), targetTeam.getChasersSkills().getAvgDefenseModifier() * targetTeam.getChasersSkills().getAvgTeamworkModifier());
+            int hit = modifiedRandomNumbersSum(offence(beater), beaterTeam.beaterHitModifier);
+            int block = modifiedRandomNumbersSum(targetTeam.beaterBlockModifier);
+            int miss = modifiedRandomNumbersSum(defense(target), targetTeam.chaserEvadeModifier);
 
             if (block > hit) {
                 play.setBludgerOutcome(Bludger.BLOCKED);
-                playerInjuredDuringPlay(play, play.getBeaterBlocker(), targetTeam.type, Injury.BLUDGER_BLOCKED);
+                playerInjuredDuringPlay(play, blocker, targetTeam.type, Injury.BLUDGER_BLOCKED);
             } else if (miss > hit) {
                 play.setBludgerOutcome(Bludger.MISSED);
             } else {
@@ -266,9 +422,10 @@ public class MatchGeneratorV1 implements MatchGenerator {
                 outcome = true;
             }
 
-            logger.trace("Bludger Play:  Outcome: {}, Hit: {}, Block: {}, Miss: {}", play.getBludgerOutcome(), hit, block, miss);
-        } else
-            logger.trace("Bludger Play: {}", bludgerPlay);
+            if (SimulationTrace.ENABLED)
+                trace.record(SimulationTrace.Event.BLUDGER_PLAY, bits(play.getBludgerOutcome()), hit, block, miss);
+        } else if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.BLUDGER_ROLL, bludgerPlay);
 
         return outcome;
     }
@@ -281,44 +438,43 @@ public class MatchGeneratorV1 implements MatchGenerator {
 
         // Select our chaser who will make the shot
         attacker = getRandomChaser(attackingTeam);
-        Keeper keeper = defendingTeam.getKeeper();
-        Chaser defender = getRandomChaser(defendingTeam);
+        PlayerData<Keeper> keeper = defendingTeam.getKeeper();
+        PlayerData<Chaser> defender = getRandomChaser(defendingTeam);
         PlayChaser play;
 
-        int score = modifiedRandomNumbersSum(
-                attacker.getOffenceModifier(), attackingTeam.getChasersSkills().getAvgOffenseModifier() * attackingTeam.getChasersSkills().getAvgTeamworkModifier());
+        int score = modifiedRandomNumbersSum(offence(attacker), attackingTeam.chaserShotModifier);
         int block = modifiedRandomNumbersSum(
-                keeper.getDefenseModifier(), defender.getDefenseModifier() * defendingTeam.getChasersSkills().getAvgTeamworkModifier());
-        int miss = modifiedRandomNumbersSum(attacker.getOffenceModifier());
+                defense(keeper), defense(defender) * defendingTeam.getChasersSkills().getAvgTeamworkModifier());
+        int miss = modifiedRandomNumbersSum(offence(attacker));
 
 
         if (isFoul(score, attacker)) {
-            play = new PlayFoul(attacker, attackingTeam.type);
+            play = newPlayFoul(attacker.player(), attackingTeam.type);
             foul(attacker, attackingTeam, defendingTeam, (PlayFoul) play);
         } else if (isFoul(block, defender)) {
-            play = new PlayFoul(defender, defendingTeam.type);
+            play = newPlayFoul(defender.player(), defendingTeam.type);
             foul(defender, defendingTeam, attackingTeam, (PlayFoul) play);
         } else if (isFoul(block, keeper)) {
-            play = new PlayFoul(keeper, defendingTeam.type);
+            play = newPlayFoul(keeper.player(), defendingTeam.type);
             foul(keeper, defendingTeam, attackingTeam, (PlayFoul) play);
         } else {
-            play = new PlayChaser(attackingTeam.type, defendingTeam.type, attacker, defender, keeper);
+            play = newPlayChaser(attackingTeam.type, defendingTeam.type, attacker.player(), defender.player(), keeper.player());
             attemptGoal(score, block, miss, play);
         }
 
         playerInjuredDuringPlay(play, keeper, defendingTeam.type, Injury.KEEPER);
         chaserInjuredDuringPlay(play);
         // AddPlay finalizes scores and match length assigned to the play
-        match.addPlay(play);
+        addPlay(play);
         swapTeams(defender);
     }
 
     void turnover() {
         attacker = getRandomChaser(attackingTeam);
         // Get a chaser from the defending team
-        Chaser defender = getRandomChaser(defendingTeam);
+        PlayerData<Chaser> defender = getRandomChaser(defendingTeam);
         // Create the play
-        PlayChaser play = new PlayChaser(attackingTeam.type, defendingTeam.type, attacker, defender, null);
+        PlayChaser play = newPlayChaser(attackingTeam.type, defendingTeam.type, attacker.player(), defender.player(), null);
         // Does the attacker get hit by a bludger
         bludgerHit(play, getRandomBeater(defendingTeam), attacker, defendingTeam, attackingTeam);
         // Possible injury?
@@ -326,22 +482,23 @@ public class MatchGeneratorV1 implements MatchGenerator {
         // Set the outcome, add the play to the list and update the duration.
         play.setQuaffleOutcome(Quaffle.TURNOVER);
         play.setPlayDurationSeconds(randomNumber(15, 60));
-        logger.trace("Turnover: Attacking team: {}, Quaffle Outcome: {}, Bludger Outcome: {}, Seconds: {}",
-                play.getAttackingTeamType(), play.getQuaffleOutcome(), play.getBludgerOutcome(), play.getPlayDurationSeconds());
-        match.addPlay(play);
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.TURNOVER, bits(play.getAttackingTeamType()), bits(play.getQuaffleOutcome()),
+                    bits(play.getBludgerOutcome()), play.getPlayDurationSeconds());
+        addPlay(play);
         // Swap the teams, the chosen defender gets the quaffle
         swapTeams(defender);
     }
 
-    private void foul(Player fouler, MatchTeam foulerTeam, MatchTeam otherTeam, PlayFoul playFoul) {
-        Chaser penaltyShotTaker = getRandomChaser(otherTeam);
-        Chaser defender = getRandomChaser(foulerTeam);
-        Keeper keeper = foulerTeam.getKeeper();
-        playFoul.setPlayChaser(otherTeam.type, foulerTeam.type, penaltyShotTaker, defender, keeper);
+    private void foul(PlayerData<?> fouler, MatchTeam foulerTeam, MatchTeam otherTeam, PlayFoul playFoul) {
+        PlayerData<Chaser> penaltyShotTaker = getRandomChaser(otherTeam);
+        PlayerData<Chaser> defender = getRandomChaser(foulerTeam);
+        PlayerData<Keeper> keeper = foulerTeam.getKeeper();
+        playFoul.setPlayChaser(otherTeam.type, foulerTeam.type, penaltyShotTaker.player(), defender.player(), keeper.player());
 
-        int score = modifiedRandomNumbersSum(penaltyShotTaker.getOffenceModifier());
-        int block = modifiedRandomNumbersSum(keeper.getDefenseModifier());
-        int miss = modifiedRandomNumbersSum(attacker.getOffenceModifier());
+        int score = modifiedRandomNumbersSum(offence(penaltyShotTaker));
+        int block = modifiedRandomNumbersSum(defense(keeper));
+        int miss = modifiedRandomNumbersSum(offence(attacker));
         switch (foulerTeam.type) {
             case HOME -> match.incrementFoulsHome();
             case AWAY -> match.incrementFoulsAway();
@@ -350,12 +507,13 @@ public class MatchGeneratorV1 implements MatchGenerator {
         attemptGoal(score, block, miss, playFoul);
     }
 
-    private boolean isFoul(int number, Player player) {
+    private boolean isFoul(int number, PlayerData<?> player) {
         switch (number) {
             case 4, 9, 16, 25, 36, 49, 64, 81, 100, 121, 144 -> {
                 int foul = randomNumber(0, 10);
-                logger.trace("Is Foul? {} < {} = {}", foul, player.getFoulLikelihood(), foul < player.getFoulLikelihood());
-                return foul < player.getFoulLikelihood();
+                if (SimulationTrace.ENABLED)
+                    trace.record(SimulationTrace.Event.IS_FOUL, foul, player.foulLikelihood(), bits(foul < player.foulLikelihood()));
+                return foul < player.foulLikelihood();
             }
             default -> {
                 return false;
@@ -376,26 +534,54 @@ public class MatchGeneratorV1 implements MatchGenerator {
             play.setQuaffleOutcome(Quaffle.MISSED);
 
         play.setPlayDurationSeconds(randomNumber(20, 120));
-        logger.trace("Attempt Goal: Outcome: {}, Seconds: {},  Score: {}, Block: {}, Miss: {}",
-                play.getQuaffleOutcome(), play.getPlayDurationSeconds(), score, block, miss);
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.ATTEMPT_GOAL, bits(play.getQuaffleOutcome()), play.getPlayDurationSeconds(), score, block, miss);
+    }
+
+    /**
+     * @param loops number of seeker rounds to run, stops early if the snitch is caught
+     * @return true if the snitch was caught
+     */
+    boolean seekerRounds(int loops) {
+        boolean snitchCaught = false;
+        while (!snitchCaught && loops > 0) {
+            snitchCaught = seekerRound();
+            loops--;
+        }
+        return snitchCaught;
     }
 
     boolean seekerRound() {
         // If the snitch hasn't been released then there is nothing for seekers to do.
+        if (!isSnitchReleased())
+            return false;
+
+        // Get the chance of something happening this iteration
+        return seekerRound(randomNumber(snitchChanceRange));
+    }
+
+    boolean isSnitchReleased() {
         if (!snitchReleased && match.getMatchLength().toSeconds() <= snitchReleaseSeconds)
             return false;
 
         snitchReleased = true;
-        // Get the chance of something happening this iteration
-        int snitchChance = randomNumber(snitchChanceRange);
+        return true;
+    }
 
+    /**
+     * @param snitchChance number drawn from {@link #snitchChanceRange} for this round
+     * @return true if the snitch was caught
+     */
+    boolean seekerRound(int snitchChance) {
         // If this isn't in the snitch range,  nothing happens this round
         if (!inRange(snitchChance, snitchInteractionRange)) {
-            if (snitchChance % 13 == 0) {
-                PlaySeeker playSeeker = new PlaySeeker(attackingTeam.getSeeker(), attackingTeam.getSeeker(), attackingTeam.type);
+            if (snitchChance % SNITCH_SEEN_DIVISOR == 0) {
+                PlaySeeker playSeeker = newPlaySeeker(attackingTeam.getSeeker().player(), attackingTeam.getSeeker().player(), attackingTeam.type);
                 playSeeker.setSnitchOutcome(Snitch.SEEN);
-                match.addPlay(playSeeker);
-                logger.trace("Snitch Seen: Snitch Chance: {} {}, Snitch Outcome: {}", snitchChance, snitchInteractionRange, playSeeker.getSnitchOutcome());
+                addPlay(playSeeker);
+                if (SimulationTrace.ENABLED)
+                    trace.record(SimulationTrace.Event.SNITCH_SEEN, snitchChance, snitchInteractionRange[0], snitchInteractionRange[1],
+                            bits(playSeeker.getSnitchOutcome()));
             }
             return false;
         }
@@ -405,13 +591,13 @@ public class MatchGeneratorV1 implements MatchGenerator {
         int awaySeekerChance;
         int difference;
         do {
-            homeSeekerChance = modifiedRandomNumber(homeTeam.getSeeker().getOffenceModifier());
-            awaySeekerChance = modifiedRandomNumber(awayTeam.getSeeker().getOffenceModifier());
+            homeSeekerChance = modifiedRandomNumber(offence(homeTeam.getSeeker()));
+            awaySeekerChance = modifiedRandomNumber(offence(awayTeam.getSeeker()));
             difference = homeSeekerChance - awaySeekerChance;
             // If difference is 0, run this again until it's not 0 to ensure we have a definitive seeker
         } while (difference == 0);
 
-        Seeker seeker;
+        PlayerData<Seeker> seeker;
         MatchTeam seekerTeam;
         TeamType seekerTeamType;
         MatchTeam otherTeam;
@@ -428,8 +614,9 @@ public class MatchGeneratorV1 implements MatchGenerator {
             otherTeam = homeTeam;
         }
 
-        logger.trace("Seeker Round: Snitch Chance: {} {}, Snitch Value: {}, Home Seeker Chance: {}, Away Seeker Chance: {}",
-                snitchChance, snitchInteractionRange, snitchValue, homeSeekerChance, awaySeekerChance);
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.SEEKER_ROUND, snitchChance, snitchInteractionRange[0], snitchInteractionRange[1],
+                    snitchValue, homeSeekerChance, awaySeekerChance);
         // If snitchChance equals snitch, an attempt is made and the snitch is either Caught, Stolen, or Missed
         if (snitchChance == snitchValue) {
             PlaySeeker playSeeker = attemptCatchSnitch(seeker, seekerTeam, seekerTeamType, otherTeam);
@@ -442,17 +629,21 @@ public class MatchGeneratorV1 implements MatchGenerator {
             }
 
             // AddPlay finalizes scores and match length assigned to the play
-            match.addPlay(playSeeker);
-            logger.trace("Seeker Play: Team Type: {}, Snitch Outcome: {}, Bludger Outcome: {}", playSeeker.getAttackingTeamType(), playSeeker.getSnitchOutcome(), playSeeker.getBludgerOutcome());
+            addPlay(playSeeker);
+            if (SimulationTrace.ENABLED)
+                trace.record(SimulationTrace.Event.SEEKER_PLAY, bits(playSeeker.getAttackingTeamType()),
+                        bits(playSeeker.getSnitchOutcome()), bits(playSeeker.getBludgerOutcome()));
             return playSeeker.isSnitchCaught();
         }
 
         // Snitch wasn't attempted, let's see if it was seen
         if (snitchChance % 4 == 0) {
-            PlaySeeker playSeeker = new PlaySeeker(seeker, otherTeam.getSeeker(), seekerTeamType);
+            PlaySeeker playSeeker = newPlaySeeker(seeker.player(), otherTeam.getSeeker().player(), seekerTeamType);
             playSeeker.setSnitchOutcome(Snitch.SEEN);
-            match.addPlay(playSeeker);
-            logger.trace("Seeker Play: Team Type: {}, Snitch Outcome: {}, Bludger Outcome: {}", playSeeker.getAttackingTeamType(), playSeeker.getSnitchOutcome(), playSeeker.getBludgerOutcome());
+            addPlay(playSeeker);
+            if (SimulationTrace.ENABLED)
+                trace.record(SimulationTrace.Event.SEEKER_PLAY, bits(playSeeker.getAttackingTeamType()),
+                        bits(playSeeker.getSnitchOutcome()), bits(playSeeker.getBludgerOutcome()));
         }
 
         // Snitch was not caught, shrink the chance window
@@ -460,10 +651,10 @@ public class MatchGeneratorV1 implements MatchGenerator {
         return false;
     }
 
-    PlaySeeker attemptCatchSnitch(Seeker seeker, MatchTeam seekerTeam, TeamType seekerTeamType, MatchTeam otherTeam) {
-        PlaySeeker playSeeker = new PlaySeeker(seeker, otherTeam.getSeeker(), seekerTeamType);
+    PlaySeeker attemptCatchSnitch(PlayerData<Seeker> seeker, MatchTeam seekerTeam, TeamType seekerTeamType, MatchTeam otherTeam) {
+        PlaySeeker playSeeker = newPlaySeeker(seeker.player(), otherTeam.getSeeker().player(), seekerTeamType);
         // The other teams beater might disrupt them
-        Beater beater = getRandomBeater(otherTeam);
+        PlayerData<Beater> beater = getRandomBeater(otherTeam);
         boolean bludgerHit = false;
         if (random.nextBoolean())
             bludgerHit = bludgerHit(playSeeker, beater, seeker, otherTeam, seekerTeam);
@@ -511,7 +702,9 @@ public class MatchGeneratorV1 implements MatchGenerator {
         if (snitchChanceRange[1] > snitchInteractionRange[1])
             snitchChanceRange[1] -= 1;
 
-        logger.trace("Shrink Snitch Chance Range: Divisor: {}, Snitch Chance: {}, Snitch Chance Range: {}, Snitch Interaction Range, {}", divisor, snitchChance, snitchChanceRange, snitchInteractionRange);
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.SHRINK_SNITCH_CHANCE_RANGE, divisor, snitchChance, snitchChanceRange[0],
+                    snitchChanceRange[1], snitchInteractionRange[0], snitchInteractionRange[1]);
     }
 
     private void chaserInjuredDuringPlay(Play play) {
@@ -521,27 +714,14 @@ public class MatchGeneratorV1 implements MatchGenerator {
             playerInjuredDuringPlay(play, getRandomChaser(awayTeam), awayTeam.type, Injury.CHASER);
     }
 
-    private void playerInjuredDuringPlay(Play play, Player player, TeamType playerTeam, Injury injuryType) {
+    private void playerInjuredDuringPlay(Play play, PlayerData<?> player, TeamType playerTeam, Injury injuryType) {
         if (play.getInjuryType() != Injury.NONE)
             return;
 
-        List<Integer> injuryChance = List.of(
-                randomNumber(1, 1000),
-                randomNumber(1, 1000),
-                randomNumber(1, 1000),
-                randomNumber(1, 1000)
-        );
-        List<Boolean> willBeInjured = List.of(
-                injuryChance.get(0) % 2 == 0,
-                injuryChance.get(1) % 3 == 0,
-                injuryChance.get(2) % 4 == 0,
-                injuryChance.get(3) % 5 == 0
-        );
-        logger.trace("Injury: {}, {}", injuryChance, willBeInjured);
-
-        if (willBeInjured.stream().allMatch(bool -> bool)) {
+        if (rollInjury()) {
             int injury = randomNumber(1, 6);
-            logger.trace("Injured: {} % 6 = {}", injury, injury % 6);
+            if (SimulationTrace.ENABLED)
+                trace.record(SimulationTrace.Event.INJURED, injury, injury % 6);
             LocalDate endDate;
             switch (injury % 6) {
                 case 0, 1 -> {
@@ -559,54 +739,209 @@ public class MatchGeneratorV1 implements MatchGenerator {
                     endDate = injuryCalculation(player, 0, ChronoUnit.DAYS, severity);
                 }
             }
-            play.setInjury(injuryType, player, playerTeam, endDate);
+            play.setInjury(injuryType, player.player(), playerTeam, endDate);
         }
     }
 
-    private LocalDate injuryCalculation(Player player, int amount, TemporalUnit unit, double severity) {
+    /**
+     * @return true if the player in the play is injured
+     */
+    boolean rollInjury() {
+        // All four chances are always rolled so the random sequence doesn't depend on the outcome
+        int chance1 = randomNumber(1, 1000);
+        int chance2 = randomNumber(1, 1000);
+        int chance3 = randomNumber(1, 1000);
+        int chance4 = randomNumber(1, 1000);
+        boolean willBeInjured = chance1 % 2 == 0 && chance2 % 3 == 0 && chance3 % 4 == 0 && chance4 % 5 == 0;
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.INJURY_CHANCE, chance1, chance2, chance3, chance4, bits(willBeInjured));
+        return willBeInjured;
+    }
+
+    private LocalDate injuryCalculation(PlayerData<?> player, int amount, TemporalUnit unit, double severity) {
         LocalDate startDate = match.getStartDateTime().toLocalDate();
         LocalDate endDate = startDate.plus(amount, unit);
-        logger.debug("Injury: {}, {} {}, {}, {} - {}", player.getName(), amount, unit, severity, startDate, endDate);
-        player.setCurrentlyInjured(true);
-        player.setInjuryDivisor(severity);
-        player.addInjuryDate(startDate, endDate);
+        if (logger.isDebugEnabled())
+            logger.debug("Injury: {}, {} {}, {}, {} - {}", player.name(), amount, unit, severity, startDate, endDate);
+        injuries.addInjury(player, startDate, endDate, severity);
+        if (cache != null || history != null)
+            addedInjuries.add(new SimulationHistory.Injury(matchPlayers.indexOf(player), startDate, endDate, severity));
 
         return endDate;
     }
 
+    /**
+     * The key is everything the match depends on: the seed, and the skills and injuries of both rosters on the match
+     * date.  Players are listed in {@link #matchPlayers} order.
+     */
+    private MatchCache.Key matchKey(long matchSeed) {
+        LocalDate date = match.getStartDateTime().toLocalDate();
+        TeamData home = snapshot.getTeam(match.getHomeTeam());
+        TeamData away = snapshot.getTeam(match.getAwayTeam());
+        long[] rosters = new long[8 + matchPlayers.size() * 4];
+        int i = 0;
+        for (TeamData team : List.of(home, away)) {
+            rosters[i++] = team.beaters().size();
+            rosters[i++] = team.chasers().size();
+            rosters[i++] = team.keepers().size();
+            rosters[i++] = team.seekers().size();
+        }
+        for (PlayerData<?> player : matchPlayers) {
+            boolean injured = injuries.isInjured(player, date);
+            rosters[i++] = ((long) player.skillOffense() << 48) | ((long) player.skillDefense() << 32)
+                    | ((long) player.skillTeamwork() << 16) | player.foulLikelihood();
+            rosters[i++] = player.name().hashCode();
+            rosters[i++] = injured ? injuries.findInjuryEndDate(player, date).toEpochDay() : Long.MIN_VALUE;
+            rosters[i++] = injured ? Double.doubleToLongBits(injuries.getInjuryDivisor(player)) : 0;
+        }
+
+        return new MatchCache.Key(getVersion(), matchSeed, recordPlays, rosters);
+    }
+
+    /**
+     * @return false if nothing usable is stored for the key, and the match has to be simulated
+     */
+    private boolean loadFromCache(MatchCache.Key key, TeamData home, TeamData away) {
+        byte[] result = cache.get(key);
+        if (result == null)
+            return false;
+
+        List<SimulationHistory.Injury> storedInjuries = new ArrayList<>();
+        match.clear();
+        setUpTeams(home, away);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(result))) {
+            match.readResult(in, id -> matchPlayers.get(id).player());
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                int player = in.readInt();
+                if (player < 0 || player >= matchPlayers.size())
+                    throw new IOException("Unknown player " + player);
+                storedInjuries.add(new SimulationHistory.Injury(player, LocalDate.ofEpochDay(in.readLong()),
+                        LocalDate.ofEpochDay(in.readLong()), in.readDouble()));
+            }
+        } catch (IOException | IndexOutOfBoundsException e) {
+            logger.warn("Unable to read cached match, simulating it instead", e);
+            cleanUp();
+            return false;
+        }
+
+        addedInjuries.clear();
+        addInjuries(storedInjuries);
+        addedInjuries.addAll(storedInjuries);
+        return true;
+    }
+
+    private void storeInCache(MatchCache.Key key) {
+        ToIntFunction<Player> playerIds = player -> {
+            for (int i = 0; i < matchPlayers.size(); i++) {
+                if (matchPlayers.get(i).player() == player)
+                    return i;
+            }
+            throw new IllegalArgumentException(player.getName() + " isn't playing in the match");
+        };
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            match.writeResult(out, playerIds);
+            out.writeInt(addedInjuries.size());
+            for (SimulationHistory.Injury injury : addedInjuries) {
+                out.writeInt(injury.player());
+                out.writeLong(injury.startDate().toEpochDay());
+                out.writeLong(injury.endDate().toEpochDay());
+                out.writeDouble(injury.divisor());
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to cache match", e);
+            return;
+        }
+        cache.put(key, bytes.toByteArray());
+    }
+
+    private void rememberMatch(MatchCache.Key key) {
+        if (history != null)
+            history.put(match, key, players(), List.copyOf(addedInjuries));
+    }
+
+    private void addInjuries(List<SimulationHistory.Injury> matchInjuries) {
+        for (SimulationHistory.Injury injury : matchInjuries)
+            injuries.addInjury(matchPlayers.get(injury.player()), injury.startDate(), injury.endDate(), injury.divisor());
+    }
+
+    private List<Player> players() {
+        List<Player> players = new ArrayList<>(matchPlayers.size());
+        for (PlayerData<?> player : matchPlayers)
+            players.add(player.player());
+        return players;
+    }
+
+    private static List<PlayerData<?>> matchPlayers(TeamData home, TeamData away) {
+        List<PlayerData<?>> players = new ArrayList<>();
+        for (TeamData team : List.of(home, away)) {
+            players.addAll(team.beaters());
+            players.addAll(team.chasers());
+            players.addAll(team.keepers());
+            players.addAll(team.seekers());
+        }
+        return players;
+    }
+
+    private double offence(PlayerData<?> player) {
+        return injuries.getOffenceModifier(player);
+    }
+
+    private double defense(PlayerData<?> player) {
+        return injuries.getDefenseModifier(player);
+    }
+
     private int randomNumber(long lowestNumber, long largestNumber) {
         int number = random.nextInt((int) lowestNumber, (int) largestNumber + 1);
-        logger.trace("Random Number: Number: {} [{}, {}]",
-                number, lowestNumber, largestNumber);
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.RANDOM_NUMBER, number, lowestNumber, largestNumber);
         return number;
     }
 
-    private int modifiedRandomNumbersSum(double... modifiers) {
-        double modifier = 1.0 + Arrays.stream(modifiers).sum();
-        long origin = 1;
-        long bound = 48;
-        int size = 3;
+    /**
+     * Rolls {@value DICE} dice and scales the total by 1 plus the modifier.
+     *
+     * @param modifier player or team modifier
+     * @return the scaled total of the dice
+     */
+    private int modifiedRandomNumbersSum(double modifier) {
+        return rollDice(1.0 + modifier);
+    }
+
+    /**
+     * Rolls {@value DICE} dice and scales the total by 1 plus both modifiers.
+     *
+     * @param modifier     player modifier
+     * @param teamModifier precomputed modifier from {@link MatchTeam}
+     * @return the scaled total of the dice
+     */
+    private int modifiedRandomNumbersSum(double modifier, double teamModifier) {
+        return rollDice(1.0 + sumModifiers(modifier, teamModifier));
+    }
+
+    private int rollDice(double modifier) {
+        long sum = 0;
+        for (int i = 0; i < DICE; i++)
+            sum += random.nextLong(DICE_ORIGIN, DICE_BOUND + 1);
 
-        long sum = random.longs(size, origin, bound + 1).sum();
         long result = Math.round(sum * modifier);
 
-        logger.trace("Random Sum: Sum: {} [{}, {}, {}], Modifier: {}, Modifiers: {}, Result: {}",
-                sum, origin, bound, size, modifier, modifiers, result);
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.RANDOM_SUM, sum, DICE_ORIGIN, DICE_BOUND, DICE, bits(modifier), result);
         if (result > Integer.MAX_VALUE)
             throw new IllegalArgumentException("Result is too large, check modifier and bounds");
         return (int) result;
     }
 
-    private int modifiedRandomNumber(double... modifiers) {
-        double modifier = 1.0 + Arrays.stream(modifiers).sum();
-        int origin = 1;
-        int bound = 100;
-
-        int number = random.nextInt(origin, bound + 1);
+    private int modifiedRandomNumber(double modifier) {
+        modifier += 1.0;
+        int number = random.nextInt(PERCENTILE_ORIGIN, PERCENTILE_BOUND + 1);
         long result = Math.round(number * modifier);
 
-        logger.trace("Random Number: Number: {} [{}, {}], Modifier: {}, Modifiers: {}, Result: {}",
-                number, origin, bound, modifier, modifiers, result);
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.MODIFIED_RANDOM_NUMBER, number, PERCENTILE_ORIGIN, PERCENTILE_BOUND, bits(modifier), result);
 
         if (result > Integer.MAX_VALUE)
             throw new IllegalArgumentException("Result is too large, check modifier and bounds");
@@ -614,6 +949,16 @@ public class MatchGeneratorV1 implements MatchGenerator {
         return (int) result;
     }
 
+    /**
+     * Adds two modifiers with the same compensated summation {@link java.util.stream.DoubleStream#sum()} uses, the
+     * dice used to sum their modifiers through a stream and the rounding has to stay the same for existing seeds.
+     */
+    static double sumModifiers(double first, double second) {
+        double sum = first + second;
+        double compensation = (sum - first) - second;
+        return sum - compensation;
+    }
+
     private int randomNumber(long[] range) {
         return randomNumber(range[0], range[1]);
     }
@@ -623,80 +968,63 @@ public class MatchGeneratorV1 implements MatchGenerator {
     }
 
     static private class MatchTeam {
-        private final Team team;
+        private final DepthCharts.DepthChart depthChart;
         private final TeamType type;
-        private final List<Beater> beaters;
-        private final List<Chaser> chasers;
-        private final Keeper keeper;
-        private final Seeker seeker;
+        private final List<PlayerData<Beater>> beaters;
+        private final List<PlayerData<Chaser>> chasers;
+        private final PlayerData<Keeper> keeper;
+        private final PlayerData<Seeker> seeker;
         private final CollectiveSkills beatersSkills;
         private final CollectiveSkills chasersSkills;
         private final CollectiveSkills teamSkills;
-
-        MatchTeam(Team team, TeamType type, LocalDate date) {
-            this.team = team;
+        /**
+         * Team modifiers for the dice, the collective skills don't change during a match
+         */
+        final double beaterHitModifier;
+        final double beaterBlockModifier;
+        final double chaserShotModifier;
+        final double chaserEvadeModifier;
+
+        MatchTeam(DepthCharts.DepthChart depthChart, TeamType type, PlayerInjuries injuries) {
+            this.depthChart = depthChart;
             this.type = type;
-            beaters = getPlayersForMatch(date, team.getBeaters()).subList(0, BEATERS);
-            chasers = getPlayersForMatch(date, team.getChasers()).subList(0, CHASERS);
-            keeper = getPlayersForMatch(date, team.getKeepers()).get(0);
-            seeker = getPlayersForMatch(date, team.getSeekers()).get(0);
-
-            beatersSkills = new CollectiveSkills(beaters);
-            chasersSkills = new CollectiveSkills(chasers);
-            List<Player> players = new ArrayList<>();
+            beaters = depthChart.getBeaters();
+            chasers = depthChart.getChasers();
+            keeper = depthChart.getKeeper();
+            seeker = depthChart.getSeeker();
+
+            beatersSkills = new CollectiveSkills(beaters, injuries);
+            chasersSkills = new CollectiveSkills(chasers, injuries);
+            List<PlayerData<?>> players = new ArrayList<>();
             players.addAll(beaters);
             players.addAll(chasers);
             players.add(keeper);
             players.add(seeker);
-            teamSkills = new CollectiveSkills(players);
-        }
-
-        <T extends Player> ArrayList<T> getPlayersForMatch(LocalDate date, List<T> players) {
-            ArrayList<T> uninjuredPlayers = new ArrayList<>();
-            ArrayList<T> injuredPlayers = new ArrayList<>();
-
-            for (T player : players) {
-                if (player.isInjured(date)) {
-                    player.currentlyInjured = true;
-                    injuredPlayers.add(player);
-                } else {
-                    player.currentlyInjured = false;
-                    uninjuredPlayers.add(player);
-                }
-            }
+            teamSkills = new CollectiveSkills(players, injuries);
 
-            Collections.sort(uninjuredPlayers);
-            Collections.sort(injuredPlayers);
-            uninjuredPlayers.addAll(injuredPlayers);
-
-            return uninjuredPlayers;
+            beaterHitModifier = beatersSkills.getAvgOffenseModifier() * beatersSkills.getAvgTeamworkModifier();
+            beaterBlockModifier = beatersSkills.getAvgDefenseModifier() * beatersSkills.getAvgTeamworkModifier();
+            chaserShotModifier = chasersSkills.getAvgOffenseModifier() * chasersSkills.getAvgTeamworkModifier();
+            chaserEvadeModifier = chasersSkills.getAvgDefenseModifier() * chasersSkills.getAvgTeamworkModifier();
         }
 
         void cleanUpTeam() {
-            markNotCurrentlyInjured(team.getBeaters());
-            markNotCurrentlyInjured(team.getChasers());
-            markNotCurrentlyInjured(team.getKeepers());
-            markNotCurrentlyInjured(team.getSeekers());
-        }
-
-        void markNotCurrentlyInjured(List<? extends Player> players) {
-            for (Player player : players)
-                player.currentlyInjured = false;
+            depthChart.cleanUp();
         }
 
-        Beater getBeater(int idx) {
+        PlayerData<Beater> getBeater(int idx) {
             return beaters.get(idx % BEATERS);
         }
 
-        Chaser getChaser(int idx) {
+        PlayerData<Chaser> getChaser(int idx) {
             return chasers.get(idx % CHASERS);
         }
 
-        Keeper getKeeper() {
+        PlayerData<Keeper> getKeeper() {
             return keeper;
         }
 
-        Seeker getSeeker() {
+        PlayerData<Seeker> getSeeker() {
             return seeker;
         }
 
@@ -714,10 +1042,10 @@ public class MatchGeneratorV1 implements MatchGenerator {
 
         Map<String, List<? extends Player>> getMatchRoster() {
             return Map.of(
-                    "Beaters", beaters,
-                    "Chasers", chasers,
-                    "Keeper", List.of(keeper),
-                    "Seeker", List.of(seeker)
+                    "Beaters", beaters.stream().map(PlayerData::player).toList(),
+                    "Chasers", chasers.stream().map(PlayerData::player).toList(),
+                    "Keeper", List.of(keeper.player()),
+                    "Seeker", List.of(seeker.player())
             );
         }
     }
@@ -728,19 +1056,18 @@ public class MatchGeneratorV1 implements MatchGenerator {
         private double teamwork;
         private double foulLikelihood;
 
-        CollectiveSkills(List<? extends Player> players) {
+        CollectiveSkills(List<? extends PlayerData<?>> players, PlayerInjuries injuries) {
             offense = 0;
             defense = 0;
             teamwork = 0;
             foulLikelihood = 0;
 
-            for (Player player : players) {
-                offense += player.getOffenceModifier();
-                defense += player.getDefenseModifier();
-                teamwork += player.getTeamworkModifier();
-                foulLikelihood += player.getFoulModifier();
+            for (PlayerData<?> player : players) {
+                offense += injuries.getOffenceModifier(player);
+                defense += injuries.getDefenseModifier(player);
+                teamwork += injuries.getTeamworkModifier(player);
+                foulLikelihood += player.foulModifier();
             }
-
             // Average the modifiers
             offense /= players.size();
             defense /= players.size();
@@ -0,0 +1,49 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Same simulation as version 1, but each match draws from its own {@link SplittableRandom} seeded with the match seed.
+ * Unlike {@link java.util.Random} it has no atomic updates on every draw, and the streams of different matches are
+ * independent of each other so they can be simulated on any thread in any order with the same result.
+ */
+public class MatchGeneratorV2 extends MatchGeneratorV1 {
+
+    public MatchGeneratorV2(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    MatchGeneratorV1 newMatchGenerator() {
+        return new MatchGeneratorV2(seed);
+    }
+
+    @Override
+    RandomGenerator createRandomGenerator(long matchSeed) {
+        return new SplittableRandom(matchSeed);
+    }
+}
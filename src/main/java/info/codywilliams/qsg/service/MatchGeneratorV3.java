@@ -0,0 +1,118 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package info.codywilliams.qsg.service;
+
+/**
+ * Same simulation as version 2, but the seeker rounds where nothing happens are skipped instead of drawn one by one.
+ * <p>
+ * A seeker round does nothing when its snitch chance is outside the interaction range and doesn't see the snitch.
+ * Those rounds change no state, so until a round does something every round has the same chance of doing something.
+ * The number of empty rounds before the next one that does is geometrically distributed, and the chance of the round
+ * that does is uniform over the values that do something.  Drawing those two numbers gives the same distribution of
+ * plays, match lengths and catch times as drawing every round, with far fewer draws late in long matches when
+ * thousands of rounds run between chaser rounds.
+ */
+public class MatchGeneratorV3 extends MatchGeneratorV2 {
+
+    public MatchGeneratorV3(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @Override
+    MatchGeneratorV1 newMatchGenerator() {
+        return new MatchGeneratorV3(seed);
+    }
+
+    @Override
+    boolean seekerRounds(int loops) {
+        // The match doesn't move on during seeker rounds until one does something, so this holds for all of them
+        if (!isSnitchReleased())
+            return false;
+
+        while (loops > 0) {
+            long low = snitchChanceRange[0];
+            long high = snitchChanceRange[1];
+            long total = high - low + 1;
+            long interactionLow = Math.max(low, snitchInteractionRange[0]);
+            long interactionHigh = Math.min(high, snitchInteractionRange[1]);
+            long interactions = Math.max(0, interactionHigh - interactionLow + 1);
+            long seen = multiples(low, high) - (interactions > 0 ? multiples(interactionLow, interactionHigh) : 0);
+            long events = interactions + seen;
+            if (events == 0)
+                return false;
+
+            long empty = emptyRounds((double) events / total, loops);
+            if (empty >= loops)
+                return false;
+            loops -= (int) empty + 1;
+
+            long event = random.nextLong(events);
+            long snitchChance;
+            if (event < interactions)
+                snitchChance = interactionLow + event;
+            else if (interactions == 0)
+                snitchChance = nthMultiple(low, event - interactions);
+            else {
+                long seenBelow = multiples(low, interactionLow - 1);
+                event -= interactions;
+                snitchChance = event < seenBelow ? nthMultiple(low, event) : nthMultiple(interactionHigh + 1, event - seenBelow);
+            }
+
+            if (seekerRound((int) snitchChance))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param chance chance of a round doing something
+     * @param limit  rounds left, the result isn't needed past this
+     * @return number of rounds that do nothing before the next one that does, at most the limit
+     */
+    private long emptyRounds(double chance, int limit) {
+        if (chance >= 1.0)
+            return 0;
+
+        // Inverse of the geometric distribution, 1 - nextDouble() is never 0
+        double rounds = Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log1p(-chance));
+        return rounds >= limit ? limit : (long) rounds;
+    }
+
+    /**
+     * @return number of values between first and last, inclusive, that see the snitch
+     */
+    private static long multiples(long first, long last) {
+        if (last < first)
+            return 0;
+        return Math.floorDiv(last, SNITCH_SEEN_DIVISOR) - Math.floorDiv(first - 1, SNITCH_SEEN_DIVISOR);
+    }
+
+    /**
+     * @return the nth value, counting from 0, at or above first that sees the snitch
+     */
+    private static long nthMultiple(long first, long n) {
+        return (Math.ceilDiv(first, SNITCH_SEEN_DIVISOR) + n) * SNITCH_SEEN_DIVISOR;
+    }
+}
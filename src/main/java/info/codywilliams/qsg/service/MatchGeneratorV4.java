@@ -0,0 +1,57 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package info.codywilliams.qsg.service;
+
+import static info.codywilliams.qsg.service.SimulationTrace.bits;
+
+/**
+ * Same simulation as version 3, but whether a player is injured is decided with a single draw.
+ * <p>
+ * Earlier versions draw four numbers from 1 to 1000 and injure the player when they're divisible by 2, 3, 4 and 5.
+ * Those are independent, so the chance is 500/1000 * 333/1000 * 250/1000 * 200/1000, exactly
+ * {@value INJURY_ODDS} in {@value INJURY_ODDS_BOUND}, which one draw against that bound gives with the same rate.
+ */
+public class MatchGeneratorV4 extends MatchGeneratorV3 {
+    final static int INJURY_ODDS = 333;
+    final static int INJURY_ODDS_BOUND = 40_000;
+
+    public MatchGeneratorV4(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public int getVersion() {
+        return 4;
+    }
+
+    @Override
+    MatchGeneratorV1 newMatchGenerator() {
+        return new MatchGeneratorV4(seed);
+    }
+
+    @Override
+    boolean rollInjury() {
+        int roll = random.nextInt(INJURY_ODDS_BOUND);
+        boolean willBeInjured = roll < INJURY_ODDS;
+        if (SimulationTrace.ENABLED)
+            trace.record(SimulationTrace.Event.INJURY_ROLL, roll, bits(willBeInjured));
+        return willBeInjured;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.Team;
+import info.codywilliams.qsg.models.match.Match;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs match simulations in parallel while keeping the results identical to running them one after another.
+ * <p>
+ * The only state a match carries forward is the injury state of the players on the two teams playing, so each
+ * match only has to wait for the previous match of its home team and of its away team.  Matches are chained per team
+ * in the order they are given, which must be the order a sequential run would use.
+ */
+public class MatchScheduler {
+    private final ForkJoinPool pool;
+
+    public MatchScheduler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MatchScheduler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param matches  matches in the order they would be simulated sequentially
+     * @param simulate simulates a single match, called from pool threads so it must not share mutable state
+     */
+    public void run(Iterable<Match> matches, Consumer<Match> simulate) {
+        List<MatchNode> roots = buildGraph(matches);
+        if (roots.isEmpty())
+            return;
+
+        pool.invoke(new RootTask(roots, simulate));
+    }
+
+    private List<MatchNode> buildGraph(Iterable<Match> matches) {
+        Map<Team, MatchNode> lastMatchForTeam = new IdentityHashMap<>();
+        List<MatchNode> roots = new ArrayList<>();
+
+        for (Match match : matches) {
+            MatchNode node = new MatchNode(match);
+            node.dependsOn(lastMatchForTeam.put(match.getHomeTeam(), node));
+            node.dependsOn(lastMatchForTeam.put(match.getAwayTeam(), node));
+
+            if (node.pending.get() == 0)
+                roots.add(node);
+        }
+
+        return roots;
+    }
+
+    private static class MatchNode {
+        final Match match;
+        final List<MatchNode> dependents = new ArrayList<>(2);
+        final AtomicInteger pending = new AtomicInteger();
+
+        MatchNode(Match match) {
+            this.match = match;
+        }
+
+        void dependsOn(MatchNode previous) {
+            // Both teams may have last played each other, only wait on that match once
+            if (previous == null || previous.dependents.contains(this))
+                return;
+
+            previous.dependents.add(this);
+            pending.incrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable but these tasks never leave the pool
+    private static class RootTask extends CountedCompleter<Void> {
+        private final List<MatchNode> roots;
+        private final Consumer<Match> simulate;
+
+        RootTask(List<MatchNode> roots, Consumer<Match> simulate) {
+            this.roots = roots;
+            this.simulate = simulate;
+        }
+
+        @Override
+        public void compute() {
+            for (MatchNode node : roots) {
+                addToPendingCount(1);
+                new MatchTask(this, node, simulate).fork();
+            }
+            tryComplete();
+        }
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable but these tasks never leave the pool
+    private static class MatchTask extends CountedCompleter<Void> {
+        private final MatchNode node;
+        private final Consumer<Match> simulate;
+
+        MatchTask(CountedCompleter<?> completer, MatchNode node, Consumer<Match> simulate) {
+            super(completer);
+            this.node = node;
+            this.simulate = simulate;
+        }
+
+        @Override
+        public void compute() {
+            simulate.accept(node.match);
+
+            for (MatchNode dependent : node.dependents) {
+                if (dependent.pending.decrementAndGet() == 0) {
+                    addToPendingCount(1);
+                    new MatchTask(this, dependent, simulate).fork();
+                }
+            }
+            tryComplete();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Running totals from a {@link MonteCarloRunner}.  Only counters are kept, so the size doesn't depend on the number
+ * of seasons simulated.
+ */
+public class MonteCarloResult {
+    private final List<TeamStatistics> teamStatistics;
+    private long seasons;
+    private long matches;
+    private long matchSeconds;
+
+    MonteCarloResult(List<String> teamNames) {
+        teamStatistics = new ArrayList<>(teamNames.size());
+        for (String teamName : teamNames)
+            teamStatistics.add(new TeamStatistics(teamName));
+    }
+
+    void addMatch(int homeTeam, int awayTeam, long seconds, boolean homeCaughtSnitch, int homeInjuries, int awayInjuries) {
+        matches++;
+        matchSeconds += seconds;
+
+        TeamStatistics home = teamStatistics.get(homeTeam);
+        TeamStatistics away = teamStatistics.get(awayTeam);
+        home.matches++;
+        away.matches++;
+        if (homeCaughtSnitch)
+            home.snitchCatches++;
+        else
+            away.snitchCatches++;
+        home.injuries += homeInjuries;
+        away.injuries += awayInjuries;
+    }
+
+    /**
+     * @param points points each team finished the season with, in the same order as the team names
+     */
+    void addSeason(int[] points) {
+        seasons++;
+
+        int best = Integer.MIN_VALUE;
+        int winners = 0;
+        for (int teamPoints : points) {
+            if (teamPoints > best) {
+                best = teamPoints;
+                winners = 1;
+            } else if (teamPoints == best)
+                winners++;
+        }
+
+        for (int i = 0; i < points.length; i++) {
+            TeamStatistics team = teamStatistics.get(i);
+            team.addPoints(points[i]);
+            // Teams tied at the top share the title
+            if (points[i] == best)
+                team.titles += 1.0 / winners;
+        }
+    }
+
+    void merge(MonteCarloResult other) {
+        seasons += other.seasons;
+        matches += other.matches;
+        matchSeconds += other.matchSeconds;
+        for (int i = 0; i < teamStatistics.size(); i++)
+            teamStatistics.get(i).merge(other.teamStatistics.get(i));
+    }
+
+    public long getSeasons() {
+        return seasons;
+    }
+
+    public long getMatches() {
+        return matches;
+    }
+
+    public Duration getAverageMatchLength() {
+        if (matches == 0)
+            return Duration.ZERO;
+        return Duration.ofSeconds(Math.round((double) matchSeconds / matches));
+    }
+
+    public List<TeamStatistics> getTeamStatistics() {
+        return Collections.unmodifiableList(teamStatistics);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Seasons: ").append(seasons)
+                .append(", Matches: ").append(matches)
+                .append(", Average Match Length: ").append(getAverageMatchLength());
+        for (TeamStatistics team : teamStatistics)
+            sb.append("\n\t").append(team);
+
+        return sb.toString();
+    }
+
+    public static class TeamStatistics {
+        private final String name;
+        private final TreeMap<Integer, Long> pointsDistribution;
+        private long seasons;
+        private long pointsSum;
+        private double pointsSumOfSquares;
+        private int minPoints = Integer.MAX_VALUE;
+        private int maxPoints = Integer.MIN_VALUE;
+        private double titles;
+        private long matches;
+        private long snitchCatches;
+        private long injuries;
+
+        TeamStatistics(String name) {
+            this.name = name;
+            pointsDistribution = new TreeMap<>();
+        }
+
+        private void addPoints(int points) {
+            seasons++;
+            pointsSum += points;
+            pointsSumOfSquares += (double) points * points;
+            minPoints = Math.min(minPoints, points);
+            maxPoints = Math.max(maxPoints, points);
+            pointsDistribution.merge(points, 1L, Long::sum);
+        }
+
+        private void merge(TeamStatistics other) {
+            seasons += other.seasons;
+            pointsSum += other.pointsSum;
+            pointsSumOfSquares += other.pointsSumOfSquares;
+            minPoints = Math.min(minPoints, other.minPoints);
+            maxPoints = Math.max(maxPoints, other.maxPoints);
+            other.pointsDistribution.forEach((points, count) -> pointsDistribution.merge(points, count, Long::sum));
+            titles += other.titles;
+            matches += other.matches;
+            snitchCatches += other.snitchCatches;
+            injuries += other.injuries;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return number of seasons the team finished with each points total
+         */
+        public SortedMap<Integer, Long> getPointsDistribution() {
+            return Collections.unmodifiableSortedMap(pointsDistribution);
+        }
+
+        public double getAveragePoints() {
+            return seasons == 0 ? 0 : (double) pointsSum / seasons;
+        }
+
+        public double getPointsStandardDeviation() {
+            if (seasons == 0)
+                return 0;
+            double average = getAveragePoints();
+            return Math.sqrt(Math.max(0, pointsSumOfSquares / seasons - average * average));
+        }
+
+        public int getMinPoints() {
+            return seasons == 0 ? 0 : minPoints;
+        }
+
+        public int getMaxPoints() {
+            return seasons == 0 ? 0 : maxPoints;
+        }
+
+        /**
+         * @return share of seasons the team finished first in, a title shared by tied teams is split between them
+         */
+        public double getTitleOdds() {
+            return seasons == 0 ? 0 : titles / seasons;
+        }
+
+        /**
+         * @return share of the team's matches in which its seeker caught the snitch
+         */
+        public double getSnitchCatchShare() {
+            return matches == 0 ? 0 : (double) snitchCatches / matches;
+        }
+
+        public long getInjuries() {
+            return injuries;
+        }
+
+        public double getInjuriesPerSeason() {
+            return seasons == 0 ? 0 : (double) injuries / seasons;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: Points: %.2f (SD %.2f, %d to %d), Title Odds: %.4f, Snitch Catch Share: %.4f, Injuries Per Season: %.2f",
+                    name, getAveragePoints(), getPointsStandardDeviation(), getMinPoints(), getMaxPoints(), getTitleOdds(),
+                    getSnitchCatchShare(), getInjuriesPerSeason());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.Team;
+import info.codywilliams.qsg.models.match.Match;
+import info.codywilliams.qsg.models.match.TeamType;
+import info.codywilliams.qsg.models.tournament.Tournament;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Simulates the same schedule and rosters many times with different seeds to find out how balanced a league is.
+ * <p>
+ * Seasons are spread over the pool's threads.  The teams are read once into a {@link SimulationSnapshot} shared by
+ * every thread, each thread works on its own copy of the matches, and the results of every match are folded into a
+ * {@link MonteCarloResult} as soon as it's generated, so memory use doesn't grow with the number of seasons.
+ */
+public class MonteCarloRunner {
+    private final Logger logger = LoggerFactory.getLogger(MonteCarloRunner.class);
+    private final Tournament tournament;
+    private final List<Team> teams;
+    private final int version;
+    private final ForkJoinPool pool;
+
+    public MonteCarloRunner(Tournament tournament, List<Team> teams, int version) {
+        this(tournament, teams, version, ForkJoinPool.commonPool());
+    }
+
+    public MonteCarloRunner(Tournament tournament, List<Team> teams, int version, ForkJoinPool pool) {
+        this.tournament = tournament;
+        this.teams = List.copyOf(teams);
+        this.version = version;
+        this.pool = pool;
+    }
+
+    /**
+     * @param seed    seed the season seeds are derived from, also used to assign teams if the tournament hasn't yet
+     * @param seasons number of seasons to simulate
+     * @return the combined statistics of all seasons
+     */
+    public MonteCarloResult run(long seed, int seasons) {
+        if (!tournament.isTeamsAssigned())
+            tournament.assignTeamsToMatches(teams, seed);
+
+        SimulationSnapshot snapshot = SimulationSnapshot.of(teams);
+        List<String> teamNames = snapshot.getTeams().stream().map(SimulationSnapshot.TeamData::name).toList();
+        int workers = Math.max(1, Math.min(pool.getParallelism(), seasons));
+        logger.info("Simulating {} seasons of {} matches on {} threads", seasons, tournament.getMatches().size(), workers);
+        long now = System.currentTimeMillis();
+
+        List<ForkJoinTask<MonteCarloResult>> tasks = new ArrayList<>(workers);
+        for (int worker = 0; worker < workers; worker++) {
+            int first = worker;
+            tasks.add(pool.submit(() -> new Season(snapshot).run(seed, first, seasons, workers, teamNames)));
+        }
+
+        MonteCarloResult result = new MonteCarloResult(teamNames);
+        for (ForkJoinTask<MonteCarloResult> task : tasks)
+            result.merge(task.join());
+
+        logger.info("{} seconds to simulate {} seasons", (System.currentTimeMillis() - now) / 1000.0, seasons);
+        return result;
+    }
+
+    /**
+     * @return the seed used for a single season, neighbouring seasons get unrelated seeds
+     */
+    static long seasonSeed(long seed, long season) {
+        return new SplittableRandom(seed + season).nextLong();
+    }
+
+    /**
+     * A copy of the schedule owned by a single thread, reused for every season that thread simulates.
+     */
+    private class Season {
+        private final SimulationSnapshot snapshot;
+        private final List<Match> matches = new ArrayList<>(tournament.getMatches().size());
+        private final int[] homeTeams;
+        private final int[] awayTeams;
+
+        Season(SimulationSnapshot snapshot) {
+            this.snapshot = snapshot;
+            homeTeams = new int[tournament.getMatches().size()];
+            awayTeams = new int[tournament.getMatches().size()];
+            for (Match match : tournament.getMatches()) {
+                Match copy = new Match(match.getNumber(), match.getRound(), match.getStartDateTime());
+                copy.setHomeTeam(match.getHomeTeam());
+                copy.setAwayTeam(match.getAwayTeam());
+                copy.setLocation(match.getLocation());
+                homeTeams[matches.size()] = snapshot.getTeam(match.getHomeTeam()).index();
+                awayTeams[matches.size()] = snapshot.getTeam(match.getAwayTeam()).index();
+                matches.add(copy);
+            }
+        }
+
+        MonteCarloResult run(long seed, int first, int seasons, int step, List<String> teamNames) {
+            MonteCarloResult result = new MonteCarloResult(teamNames);
+            int[] seasonPoints = new int[teamNames.size()];
+
+            for (long season = first; season < seasons; season += step) {
+                MatchGenerator matchGenerator = MatchGenerator.create(seasonSeed(seed, season), version);
+                matchGenerator.setRecordPlays(false);
+                matchGenerator.setSnapshot(snapshot);
+                Arrays.fill(seasonPoints, 0);
+
+                for (int i = 0; i < matches.size(); i++) {
+                    Match match = matches.get(i);
+                    matchGenerator.generateMatch(match);
+                    result.addMatch(homeTeams[i], awayTeams[i], match.getMatchLength().toSeconds(),
+                            match.getSnitchCaughtBy() == TeamType.HOME,
+                            match.getInjuryCount(TeamType.HOME), match.getInjuryCount(TeamType.AWAY));
+                    tournament.assignPoints(match, homeTeams[i], awayTeams[i], seasonPoints);
+                }
+
+                result.addSeason(seasonPoints);
+            }
+
+            return result;
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -67,15 +68,27 @@ public class OutputService {
     }
 
     public void writePagesToHtml(List<Page> pages, String yearRange) {
-        // Set up an output directory with a subdirectory named after the league and year
-        Path outputPath = Paths.get("output");
+        writePagesToHtml(pages, yearRange, Paths.get("output"));
+    }
+
+    public void writePagesToHtml(List<Page> pages, String yearRange, Path outputPath) {
+        writePagesToHtml(pages, yearRange, outputPath, GenerationProgress.NONE);
+    }
 
+    /**
+     * @param progress told about each page written, checked for cancellation between pages
+     * @throws java.util.concurrent.CancellationException if the progress is cancelled before all pages are written
+     */
+    public void writePagesToHtml(List<Page> pages, String yearRange, Path outputPath, GenerationProgress progress) {
+        // Set up an output directory with a subdirectory named after the league and year
         final String teamSeasonDivRegex = "<h3>" + yearRange + "</h3>.*?<div class=\"team-season\" id=\"team-season-" + yearRange + "\">.*?<\\/div>.*?<\\/div>";
         final Pattern teamSeasonDivPattern = Pattern.compile(teamSeasonDivRegex, Pattern.MULTILINE | Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
 
         try {
             Files.createDirectories(outputPath);
+            int written = 0;
             for (Page page : pages) {
+                progress.checkCancelled();
                 Path pageDir = outputPath.resolve(page.getDirectory());
                 Files.createDirectories(pageDir);
                 String fileName = page.getPageType() == Page.Type.TOURNAMENT ? "index.html" : Formatters.sanitizeFileNames(page.getPageTitle()) + ".html";
@@ -106,6 +119,7 @@ public class OutputService {
                         }
                     }
                 }
+                progress.update(GenerationProgress.Step.WRITING_PAGES, ++written, pages.size());
             }
 
             Path cssDir = outputPath.resolve("css");
@@ -121,10 +135,21 @@ public class OutputService {
     }
 
     public void writePagesToMediawiki(List<Page> pages, Mediawiki mediawiki, String yearRange, Boolean writeTeamPages) throws IOException {
+        writePagesToMediawiki(pages, mediawiki, yearRange, writeTeamPages, GenerationProgress.NONE);
+    }
+
+    /**
+     * @param progress told about each page published, checked for cancellation between pages
+     * @throws java.util.concurrent.CancellationException if the progress is cancelled or the thread is interrupted
+     *                                                    before all pages are published
+     */
+    public void writePagesToMediawiki(List<Page> pages, Mediawiki mediawiki, String yearRange, Boolean writeTeamPages, GenerationProgress progress) throws IOException {
         if(!mediawiki.isLoggedIn())
             return;
         try {
+            int written = 0;
             for (Page page : pages) {
+                progress.checkCancelled();
                 logger.info("Writing: {}", page.getPageTitle());
                 switch (page.getPageType()) {
                     case TOURNAMENT ->  {
@@ -153,6 +178,7 @@ public class OutputService {
                     }
                 }
 
+                progress.update(GenerationProgress.Step.WRITING_PAGES, ++written, pages.size());
                 Thread.sleep(250);
             }
 
@@ -161,7 +187,10 @@ public class OutputService {
 
             mediawiki.createPage("Template:Styles/QuidditchGenerator.css", css);
         } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            Thread.currentThread().interrupt();
+            CancellationException cancellationException = new CancellationException("Interrupted while publishing pages");
+            cancellationException.initCause(e);
+            throw cancellationException;
         }
     }
 
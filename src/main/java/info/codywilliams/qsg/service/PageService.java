@@ -40,6 +40,7 @@ import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class PageService {
     @JsonIgnore
@@ -55,12 +56,25 @@ public class PageService {
     protected long seed;
     @JsonIgnore
     private String generatorVersionUsed;
+    @JsonIgnore
+    private int generatorVersion = 1;
+    /**
+     * Kept between generations so matches that didn't change aren't simulated again
+     */
+    @JsonIgnore
+    private final MatchCache matchCache = new MatchCache();
+    /**
+     * Lets generating again after editing a team only simulate the matches the edit changed
+     */
+    @JsonIgnore
+    private final SimulationHistory simulationHistory = new SimulationHistory();
 
 
 
     protected Logger logger = LoggerFactory.getLogger(PageService.class);
 
     private Tournament tournament;
+    private List<Match> matches;
     private TournamentOptions tournamentOptions;
     private boolean createMatchPages = true;
     private boolean includePlayerDetails = true;
@@ -75,14 +89,40 @@ public class PageService {
     }
 
     public List<Page> buildPages(Tournament tournament, List<Team> teamList, boolean createMatchPages, boolean includePlayerDetails, long seed) {
-        this.tournament = tournament;
+        return buildPages(tournament, teamList, createMatchPages, includePlayerDetails, seed, GenerationProgress.NONE);
+    }
+
+    /**
+     * @param progress told about each simulated match and built page, checked for cancellation between them
+     * @throws java.util.concurrent.CancellationException if the progress is cancelled before all pages are built
+     */
+    public List<Page> buildPages(Tournament tournament, List<Team> teamList, boolean createMatchPages, boolean includePlayerDetails, long seed, GenerationProgress progress) {
+        return buildPages(PreparedSeason.of(tournament, teamList, seed), createMatchPages, includePlayerDetails, seed, progress);
+    }
+
+    /**
+     * Builds the pages of a season prepared on the thread that owns the model, so it can be called from any thread.
+     * Changes to the model go through the progress's {@link GenerationProgress#updateModel(Runnable)}.
+     *
+     * @param season   teams and matches copied before building starts
+     * @param progress told about each simulated match and built page, checked for cancellation between them
+     * @throws java.util.concurrent.CancellationException if the progress is cancelled before all pages are built
+     */
+    public List<Page> buildPages(PreparedSeason season, boolean createMatchPages, boolean includePlayerDetails, long seed, GenerationProgress progress) {
+        this.tournament = season.tournament();
         this.tournamentOptions = tournament.getTournamentOptions();
-        this.teamList = teamList;
+        this.teamList = season.teams();
+        this.matches = season.matches();
         this.createMatchPages = createMatchPages;
         this.includePlayerDetails = includePlayerDetails;
         this.seed = seed;
-        MatchGenerator matchGenerator = MatchGenerator.create(this.seed, 1);
-        matchGenerator.generateMatches(tournament, teamList);
+        MatchGenerator matchGenerator = MatchGenerator.create(this.seed, generatorVersion);
+        // Plays are only shown on the match pages
+        matchGenerator.setRecordPlays(createMatchPages);
+        matchGenerator.setProgress(progress);
+        matchGenerator.setCache(matchCache);
+        matchGenerator.setHistory(simulationHistory);
+        matchGenerator.generateMatches(season);
         generatorVersionUsed = String.valueOf(matchGenerator.getVersion());
 
         long now = System.currentTimeMillis();
@@ -94,18 +134,20 @@ public class PageService {
         tournamentTitle = outputResourceBundleReplacer.getString("tournamentTitle");
 
         List<Page> pages = new ArrayList<>();
+        int totalPages = (this.createMatchPages ? matches.size() : 0) + teamList.size() + 1;
 
-        if (this.createMatchPages) {
-            for (Match match : tournament.getMatches()) {
-                pages.add(buildMatchPage(match));
-            }
-        }
+        if (this.createMatchPages)
+            pages.addAll(buildMatchPages(progress, totalPages));
 
         for (Team team: teamList) {
+            progress.checkCancelled();
             pages.add(buildTeamPage(team));
+            progress.update(GenerationProgress.Step.BUILDING_PAGES, pages.size(), totalPages);
         }
 
+        progress.checkCancelled();
         pages.add(0, buildTournamentPage(tournamentTitle, seed));
+        progress.update(GenerationProgress.Step.BUILDING_PAGES, pages.size(), totalPages);
 
         now = System.currentTimeMillis() - now;
         logger.info("{} seconds to generate pages", now / 1000.0);
@@ -203,7 +245,7 @@ public class PageService {
         leagueScheduleTopper.addClass("tournament-schedule-info");
         seasonPage.addBodyContent(leagueScheduleTopper);
 
-        Table matchTable = buildMatchTable(tournament.getMatches());
+        Table matchTable = buildMatchTable(matches);
 
         seasonPage.addBodyContent(matchTable);
 
@@ -256,7 +298,7 @@ public class PageService {
         return seasonPage;
     }
 
-    private Table buildMatchTable(Set<Match> matches) {
+    private Table buildMatchTable(List<Match> matches) {
         Table matchTable = new Table();
         matchTable.addClass("tournament-schedule", "wikitable");
 
@@ -361,32 +403,61 @@ public class PageService {
         return new Table.Row(date, home, away, location, length, score, points);
     }
 
-    private void setResourceMatchTokens(Team homeTeam, Team awayTeam, LocalDateTime startDateTime) {
-        this.outputResourceBundleReplacer.addToken("date", startDateTime.toLocalDate().format(Formatters.dateFormatter));
-        this.outputResourceBundleReplacer.addToken("homeTeam", homeTeam.getName());
+    /**
+     * Match pages only read the simulated matches and tokens that are set before they start, so they're built in
+     * parallel.  The pages are returned in the order of the matches, and their titles are set on the matches once
+     * they're all built.
+     */
+    private List<Page> buildMatchPages(GenerationProgress progress, int totalPages) {
+        Page[] matchPages = new Page[matches.size()];
+        int[] built = {0};
+
+        IntStream.range(0, matches.size()).parallel().forEach(i -> {
+            progress.checkCancelled();
+            matchPages[i] = buildMatchPage(matches.get(i));
+            // Counted and reported together so the progress never goes backwards
+            synchronized (built) {
+                progress.update(GenerationProgress.Step.BUILDING_PAGES, ++built[0], totalPages);
+            }
+        });
+
+        progress.updateModel(() -> {
+            for (int i = 0; i < matchPages.length; i++)
+                matches.get(i).setTitle(matchPages[i].getPageTitle());
+        });
+        return Arrays.asList(matchPages);
+    }
+
+    /**
+     * @return the season's tokens with the ones for a single match added
+     */
+    private ResourceBundleReplacer.Tokens matchTokens(Team homeTeam, Team awayTeam, LocalDateTime startDateTime) {
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("date", startDateTime.toLocalDate().format(Formatters.dateFormatter));
+        tokens.put("homeTeam", homeTeam.getName());
         if (homeTeam.getShortName().isEmpty())
-            this.outputResourceBundleReplacer.addToken("homeTeamShort", homeTeam.getName());
+            tokens.put("homeTeamShort", homeTeam.getName());
         else
-            this.outputResourceBundleReplacer.addToken("homeTeamShort", homeTeam.getShortName());
-        this.outputResourceBundleReplacer.addToken("awayTeam", awayTeam.getName());
+            tokens.put("homeTeamShort", homeTeam.getShortName());
+        tokens.put("awayTeam", awayTeam.getName());
         if (awayTeam.getShortName().isEmpty())
-            this.outputResourceBundleReplacer.addToken("awayTeamShort", awayTeam.getName());
+            tokens.put("awayTeamShort", awayTeam.getName());
         else
-            this.outputResourceBundleReplacer.addToken("awayTeamShort", awayTeam.getShortName());
+            tokens.put("awayTeamShort", awayTeam.getShortName());
+        return outputResourceBundleReplacer.getTokens().with(tokens);
     }
 
     private Page buildMatchPage(Match match) {
         Team homeTeam = match.getHomeTeam();
         Team awayTeam = match.getAwayTeam();
 
-        setResourceMatchTokens(homeTeam, awayTeam, match.getStartDateTime());
-        String title = outputResourceBundleReplacer.getString("match.title");
-        match.setTitle(title);
+        ResourceBundleReplacer.Tokens tokens = matchTokens(homeTeam, awayTeam, match.getStartDateTime());
+        String title = outputResourceBundleReplacer.getString("match.title", tokens);
 
-        Page matchPage = new Page(title, outputResourceBundleReplacer.getString("directory.tournament"), Page.Type.MATCH);
+        Page matchPage = new Page(title, outputResourceBundleReplacer.getString("directory.tournament", tokens), Page.Type.MATCH);
         matchPage.addStyle(QUIDDITCH_STYLE);
-        matchPage.addMetadata("keywords", null, outputResourceBundleReplacer.getString("meta.match.keywords"), null);
-        matchPage.addBodyContent(new MatchInfobox(match, tournamentTitle, outputResourceBundleReplacer.getString("leagueName"), outputResourceBundleReplacer.getString("yearRange"), outputResourceBundle));
+        matchPage.addMetadata("keywords", null, outputResourceBundleReplacer.getString("meta.match.keywords", tokens), null);
+        matchPage.addBodyContent(new MatchInfobox(match, tournamentTitle, outputResourceBundleReplacer.getString("leagueName", tokens), outputResourceBundleReplacer.getString("yearRange", tokens), outputResourceBundle));
 
         if (includePlayerDetails) {
             Link.ImageLink homeImage = new Link.ImageLink(
@@ -418,7 +489,7 @@ public class PageService {
                     )
             );
             rostersDiv.setId("match-rosters");
-            matchPage.addBodyContent(new Header(2, outputResourceBundleReplacer.getString("match.rosters.header")), rostersDiv);
+            matchPage.addBodyContent(new Header(2, outputResourceBundleReplacer.getString("match.rosters.header", tokens)), rostersDiv);
         }
 
         matchPage.addBodyContent(new Header(2, "Match"));
@@ -426,7 +497,10 @@ public class PageService {
         playList.addClass("match-play");
 
         int i = 0;
-        for (Play play : match.getPlays()) {
+        PlayLog.Cursor cursor = match.getPlays().cursor();
+        while (cursor.next()) {
+            // The cursor reuses its play objects, they're only valid until the next play
+            Play play = cursor.play();
             i++;
             String playResourceKey = buildPlayResourceKey(play);
             Map<String, String> playTokenMap = buildPlayResourceTempTokenMap(play, match);
@@ -435,7 +509,7 @@ public class PageService {
             playList.addChildren(li);
             List<Element> liChildren = new ArrayList<>();
 
-            String playText = outputResourceBundleReplacer.getStringWithTempTokens(playResourceKey, playTokenMap);
+            String playText = outputResourceBundleReplacer.getStringWithTempTokens(playResourceKey, tokens, playTokenMap);
             Matcher matcher = ballPattern.matcher(playText);
             playText = matcher.replaceAll(ballReplacement);
 
@@ -451,13 +525,13 @@ public class PageService {
 
             if (play.getInjuryType() != Injury.NONE) {
                 String injuryResourceKey = buildInjuryResourceKey(play);
-                String injuryText = outputResourceBundleReplacer.getStringWithTempTokens(injuryResourceKey, playTokenMap);
+                String injuryText = outputResourceBundleReplacer.getStringWithTempTokens(injuryResourceKey, tokens, playTokenMap);
                 Div injuryDiv = new Div(new Text(injuryText));
                 injuryDiv.addClass("match-injury");
                 liChildren.add(injuryDiv);
             }
             if (i == 5) {
-                Div time = new Div(new Text(outputResourceBundleReplacer.getString("match.time") + ": " + Formatters.formatDuration(play.getMatchLength())));
+                Div time = new Div(new Text(outputResourceBundleReplacer.getString("match.time", tokens) + ": " + Formatters.formatDuration(play.getMatchLength())));
                 time.addClass("match-time");
                 liChildren.add(time);
                 i = 0;
@@ -740,6 +814,13 @@ public class PageService {
         return List.of();
     }
 
+    /**
+     * @param generatorVersion version of the match generator the next pages are built with, defaults to 1
+     */
+    public void setGeneratorVersion(int generatorVersion) {
+        this.generatorVersion = generatorVersion;
+    }
+
     public String getTournamentTitle() {
         return tournamentTitle;
     }
@@ -0,0 +1,124 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.player.InjuryHistory;
+import info.codywilliams.qsg.models.player.Player;
+import info.codywilliams.qsg.service.SimulationSnapshot.PlayerData;
+
+import java.time.LocalDate;
+
+/**
+ * The injury state of every player in a {@link SimulationSnapshot} during a simulation, indexed by player index.
+ * <p>
+ * Only the matches of a player's own team touch the player's entries, and those are generated one after another, so
+ * matches of different teams can use the same instance from different threads.
+ */
+class PlayerInjuries {
+    private final SimulationSnapshot snapshot;
+    private final InjuryHistory[] histories;
+    private final double[] divisors;
+    private final boolean[] currentlyInjured;
+
+    PlayerInjuries(SimulationSnapshot snapshot) {
+        this.snapshot = snapshot;
+        int players = snapshot.getPlayerCount();
+        histories = new InjuryHistory[players];
+        divisors = new double[players];
+        currentlyInjured = new boolean[players];
+        for (int i = 0; i < players; i++) {
+            histories[i] = new InjuryHistory();
+            divisors[i] = 2;
+        }
+    }
+
+    boolean isInjured(PlayerData<?> player, LocalDate date) {
+        return histories[player.index()].contains(date);
+    }
+
+    LocalDate findInjuryEndDate(PlayerData<?> player, LocalDate date) {
+        return histories[player.index()].findEndDate(date);
+    }
+
+    void addInjury(PlayerData<?> player, LocalDate startDate, LocalDate endDate, double divisor) {
+        histories[player.index()].add(startDate, endDate);
+        divisors[player.index()] = divisor;
+        currentlyInjured[player.index()] = true;
+    }
+
+    double getInjuryDivisor(PlayerData<?> player) {
+        return divisors[player.index()];
+    }
+
+    boolean isCurrentlyInjured(PlayerData<?> player) {
+        return currentlyInjured[player.index()];
+    }
+
+    void setCurrentlyInjured(PlayerData<?> player, boolean injured) {
+        currentlyInjured[player.index()] = injured;
+    }
+
+    double getDefenseModifier(PlayerData<?> player) {
+        return currentlyInjured[player.index()] ? player.defenseModifier() / divisors[player.index()] : player.defenseModifier();
+    }
+
+    double getOffenceModifier(PlayerData<?> player) {
+        return currentlyInjured[player.index()] ? player.offenceModifier() / divisors[player.index()] : player.offenceModifier();
+    }
+
+    double getTeamworkModifier(PlayerData<?> player) {
+        return currentlyInjured[player.index()] ? player.teamworkModifier() / divisors[player.index()] : player.teamworkModifier();
+    }
+
+    /**
+     * Same value as {@link Player#getModifiers()}, the value lineups are sorted by in {@link Player#compareTo(Player)}
+     * order.
+     */
+    double getModifiers(PlayerData<?> player) {
+        return getOffenceModifier(player) + getDefenseModifier(player) + getTeamworkModifier(player) - player.foulModifier();
+    }
+
+    /**
+     * Same ordering as {@link Player#compareTo(Player)}.
+     */
+    int compare(PlayerData<?> first, PlayerData<?> second) {
+        double firstModifiers = getModifiers(first);
+        double secondModifiers = getModifiers(second);
+        if (Math.abs(firstModifiers - secondModifiers) <= 0.0001)
+            return 0;
+        else if (firstModifiers > secondModifiers)
+            return 1;
+        else
+            return -1;
+    }
+
+    /**
+     * Replaces the injuries on the players the snapshot was taken of with the simulated ones.  Must be called from the
+     * thread that owns the players, after the simulation is done.
+     */
+    void copyToPlayers() {
+        for (PlayerData<?> data : snapshot.getPlayers()) {
+            Player player = data.player();
+            player.clear();
+            for (Player.InjuryRange range : histories[data.index()].getRanges())
+                player.addInjuryDate(range.start(), range.end());
+            player.setInjuryDivisor(divisors[data.index()]);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.Team;
+import info.codywilliams.qsg.models.match.Match;
+import info.codywilliams.qsg.models.tournament.Tournament;
+
+import java.util.List;
+
+/**
+ * Everything generating a season reads from the model, copied before the generation starts so the season can be
+ * generated off the thread that owns the model.  Edits made to the tournament afterwards, including replacing its
+ * matches, don't change what is generated.
+ *
+ * @param tournament tournament the matches belong to, only changed through {@link GenerationProgress#updateModel(Runnable)}
+ * @param teams      teams pages are built for
+ * @param snapshot   teams and players the matches are simulated with
+ * @param matches    matches to simulate, in order
+ */
+public record PreparedSeason(Tournament tournament, List<Team> teams, SimulationSnapshot snapshot, List<Match> matches) {
+
+    /**
+     * Assigns the teams to the matches if they haven't been yet.  Must be called from the thread that owns the teams,
+     * usually the JavaFX application thread.
+     *
+     * @param tournament tournament to generate
+     * @param teamList   teams in the tournament
+     * @param seed       seed used to assign the teams to the matches
+     * @return the season as it is now
+     */
+    public static PreparedSeason of(Tournament tournament, List<Team> teamList, long seed) {
+        if (!tournament.isTeamsAssigned())
+            tournament.assignTeamsToMatches(teamList, seed);
+
+        return new PreparedSeason(tournament, List.copyOf(teamList), SimulationSnapshot.of(tournament.getTeamList()),
+                List.copyOf(tournament.getMatches()));
+    }
+}
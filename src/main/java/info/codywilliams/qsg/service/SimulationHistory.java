@@ -0,0 +1,123 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.match.Match;
+import info.codywilliams.qsg.models.player.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What every match read and changed when it was last simulated, so generating a season again after editing a team only
+ * simulates the matches the edit reaches.
+ * <p>
+ * A match reads the skills and injury state of both rosters on its date, and changes the injuries of the players it
+ * injures.  When a match's rosters read the same as last time its result is kept and its injuries are added again, so
+ * an edit stops spreading through the season at the first match where the injury state comes out the same.  Matches
+ * are generated in date order per team, so a changed injury reaches every later match of the team.
+ * <p>
+ * Kept results are the ones still in the {@link Match} objects, so the matches must only be generated with this
+ * history between generations.
+ */
+public class SimulationHistory {
+    private final Map<Match, SimulatedMatch> matches = new IdentityHashMap<>();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong simulated = new AtomicLong();
+
+    /**
+     * Forgets matches that aren't part of the season anymore, like after the tournament is recalculated.
+     *
+     * @param season matches about to be generated
+     */
+    synchronized void retainAll(Collection<Match> season) {
+        Set<Match> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.addAll(season);
+        matches.keySet().retainAll(current);
+    }
+
+    /**
+     * @param key     state of both rosters the match is about to read
+     * @param players every player on both teams, in the order the key lists them
+     * @return the injuries the match added last time, or null if the match has to be simulated
+     */
+    @Nullable
+    synchronized List<Injury> findUnchanged(Match match, MatchCache.Key key, List<Player> players) {
+        SimulatedMatch previous = matches.get(match);
+        if (previous == null || !previous.key().equals(key) || !samePlayers(previous.players(), players)) {
+            simulated.incrementAndGet();
+            return null;
+        }
+
+        reused.incrementAndGet();
+        return previous.injuries();
+    }
+
+    /**
+     * Called before a match is simulated, the old result is gone once the match is cleared.
+     */
+    synchronized void remove(Match match) {
+        matches.remove(match);
+    }
+
+    synchronized void put(Match match, MatchCache.Key key, List<Player> players, List<Injury> injuries) {
+        matches.put(match, new SimulatedMatch(key, players, injuries));
+    }
+
+    public synchronized void clear() {
+        matches.clear();
+    }
+
+    /**
+     * @return number of matches kept without simulating them again
+     */
+    public long getReused() {
+        return reused.get();
+    }
+
+    /**
+     * @return number of matches that had changed, or weren't generated before
+     */
+    public long getSimulated() {
+        return simulated.get();
+    }
+
+    private static boolean samePlayers(List<Player> first, List<Player> second) {
+        if (first.size() != second.size())
+            return false;
+        for (int i = 0; i < first.size(); i++) {
+            if (first.get(i) != second.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param player   position of the player in the match's list of players
+     * @param divisor  how much the injury reduces the player's skills
+     */
+    record Injury(int player, LocalDate startDate, LocalDate endDate, double divisor) {
+    }
+
+    private record SimulatedMatch(MatchCache.Key key, List<Player> players, List<Injury> injuries) {
+    }
+}
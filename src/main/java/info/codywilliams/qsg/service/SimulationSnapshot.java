@@ -0,0 +1,135 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.Team;
+import info.codywilliams.qsg.models.player.*;
+
+import java.util.*;
+
+/**
+ * Immutable copy of the teams and players taken before a simulation starts.
+ * <p>
+ * The match generator reads skills and modifiers from the snapshot instead of the JavaFX properties on the model, so
+ * the simulation can run on any thread while the model is left alone.  Teams and players get dense indices, which
+ * {@link PlayerInjuries} uses to keep the injury state of a simulation in plain arrays.  The model objects are kept
+ * only so plays and pages can refer to them.
+ */
+public class SimulationSnapshot {
+    private final List<TeamData> teams;
+    private final List<PlayerData<?>> players;
+    private final Map<Team, TeamData> teamData;
+
+    private SimulationSnapshot(List<TeamData> teams, List<PlayerData<?>> players, Map<Team, TeamData> teamData) {
+        this.teams = teams;
+        this.players = players;
+        this.teamData = teamData;
+    }
+
+    /**
+     * Must be called from the thread that owns the teams, usually the JavaFX application thread.
+     *
+     * @param teamList teams to copy, their index is their position in the list
+     * @return snapshot of the teams as they are now
+     */
+    public static SimulationSnapshot of(List<Team> teamList) {
+        List<TeamData> teams = new ArrayList<>(teamList.size());
+        List<PlayerData<?>> players = new ArrayList<>();
+        Map<Team, TeamData> teamData = new IdentityHashMap<>();
+
+        for (Team team : teamList) {
+            int teamIndex = teams.size();
+            TeamData data = new TeamData(teamIndex, team, team.getName(), team.hashCode(),
+                    copyPlayers(team.getBeaters(), teamIndex, players),
+                    copyPlayers(team.getChasers(), teamIndex, players),
+                    copyPlayers(team.getKeepers(), teamIndex, players),
+                    copyPlayers(team.getSeekers(), teamIndex, players)
+            );
+            teams.add(data);
+            teamData.put(team, data);
+        }
+
+        return new SimulationSnapshot(List.copyOf(teams), Collections.unmodifiableList(players), teamData);
+    }
+
+    private static <T extends Player> List<PlayerData<T>> copyPlayers(List<T> teamPlayers, int teamIndex, List<PlayerData<?>> players) {
+        List<PlayerData<T>> copies = new ArrayList<>(teamPlayers.size());
+        for (T player : teamPlayers) {
+            PlayerData<T> copy = new PlayerData<>(players.size(), teamIndex, player, player.getName(),
+                    player.getSkillOffense(), player.getSkillDefense(), player.getSkillTeamwork(), player.getFoulLikelihood());
+            copies.add(copy);
+            players.add(copy);
+        }
+        return List.copyOf(copies);
+    }
+
+    public List<TeamData> getTeams() {
+        return teams;
+    }
+
+    public List<PlayerData<?>> getPlayers() {
+        return players;
+    }
+
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * @param team team from the list the snapshot was taken of
+     * @return the snapshot of the team
+     * @throws IllegalArgumentException if the team isn't in the snapshot
+     */
+    public TeamData getTeam(Team team) {
+        TeamData data = teamData.get(team);
+        if (data == null)
+            throw new IllegalArgumentException("Team " + team.getName() + " isn't in the simulation snapshot");
+        return data;
+    }
+
+    /**
+     * @param index    position of the team in the snapshot
+     * @param team     the team the snapshot was taken of
+     * @param name     name of the team
+     * @param seedHash hash of the team when the snapshot was taken, part of every match seed
+     */
+    public record TeamData(int index, Team team, String name, int seedHash, List<PlayerData<Beater>> beaters,
+                           List<PlayerData<Chaser>> chasers, List<PlayerData<Keeper>> keepers,
+                           List<PlayerData<Seeker>> seekers) {
+    }
+
+    /**
+     * Skills of a single player, the modifiers are the ones used while the player isn't injured.
+     *
+     * @param index     position of the player in the snapshot, across all teams
+     * @param teamIndex position of the player's team in the snapshot
+     * @param player    the player the snapshot was taken of
+     */
+    public record PlayerData<T extends Player>(int index, int teamIndex, T player, String name, int skillOffense,
+                                               int skillDefense, int skillTeamwork, int foulLikelihood,
+                                               double offenceModifier, double defenseModifier,
+                                               double teamworkModifier, double foulModifier) {
+        PlayerData(int index, int teamIndex, T player, String name, int skillOffense, int skillDefense,
+                   int skillTeamwork, int foulLikelihood) {
+            this(index, teamIndex, player, name, skillOffense, skillDefense, skillTeamwork, foulLikelihood,
+                    Player.skillModifier(skillOffense), Player.skillModifier(skillDefense),
+                    Player.skillModifier(skillTeamwork), Player.skillModifier(foulLikelihood));
+        }
+    }
+}
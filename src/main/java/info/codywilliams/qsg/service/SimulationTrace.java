@@ -0,0 +1,224 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package info.codywilliams.qsg.service;
+
+import info.codywilliams.qsg.models.match.Bludger;
+import info.codywilliams.qsg.models.match.Quaffle;
+import info.codywilliams.qsg.models.match.Snitch;
+import info.codywilliams.qsg.models.match.TeamType;
+
+import java.util.function.Consumer;
+
+/**
+ * Fixed size ring buffer of binary simulation events for the match being generated on a thread.
+ * <p>
+ * Tracing is turned on with the {@code qsg.simulation.trace} system property.  When it is off every call site is
+ * behind the {@link #ENABLED} constant, so the JIT removes them along with their arguments.  When it is on each event is
+ * stored as a type and up to {@value #FIELDS} primitive fields, nothing is boxed or formatted until the buffer is dumped.
+ * Once the buffer is full the oldest events are overwritten.  A match is generated on a single thread, so each thread
+ * keeps one buffer and resets it for every match instead of allocating one per match.
+ */
+public final class SimulationTrace {
+    public static final boolean ENABLED = Boolean.getBoolean("qsg.simulation.trace");
+    static final int FIELDS = 6;
+    private static final int RECORD_SIZE = FIELDS + 1;
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final ThreadLocal<SimulationTrace> THREAD_TRACE = ThreadLocal.withInitial(SimulationTrace::new);
+
+    private final long[] buffer;
+    private final int capacity;
+    private long count;
+
+    public SimulationTrace() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of events to keep, rounded up to a power of two
+     */
+    public SimulationTrace(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        buffer = new long[this.capacity * RECORD_SIZE];
+    }
+
+    /**
+     * @return the trace kept for the calling thread, reset it before recording a new match
+     */
+    public static SimulationTrace forCurrentThread() {
+        return THREAD_TRACE.get();
+    }
+
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * @return number of events recorded since the last reset, including ones that have been overwritten
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private int next(Event event, int fields) {
+        int offset = (int) (count & (capacity - 1)) * RECORD_SIZE;
+        count++;
+        buffer[offset] = ((long) fields << 8) | event.ordinal();
+        return offset + 1;
+    }
+
+    public void record(Event event, long a) {
+        int offset = next(event, 1);
+        buffer[offset] = a;
+    }
+
+    public void record(Event event, long a, long b) {
+        int offset = next(event, 2);
+        buffer[offset] = a;
+        buffer[offset + 1] = b;
+    }
+
+    public void record(Event event, long a, long b, long c) {
+        int offset = next(event, 3);
+        buffer[offset] = a;
+        buffer[offset + 1] = b;
+        buffer[offset + 2] = c;
+    }
+
+    public void record(Event event, long a, long b, long c, long d) {
+        int offset = next(event, 4);
+        buffer[offset] = a;
+        buffer[offset + 1] = b;
+        buffer[offset + 2] = c;
+        buffer[offset + 3] = d;
+    }
+
+    public void record(Event event, long a, long b, long c, long d, long e) {
+        int offset = next(event, 5);
+        buffer[offset] = a;
+        buffer[offset + 1] = b;
+        buffer[offset + 2] = c;
+        buffer[offset + 3] = d;
+        buffer[offset + 4] = e;
+    }
+
+    public void record(Event event, long a, long b, long c, long d, long e, long f) {
+        int offset = next(event, 6);
+        buffer[offset] = a;
+        buffer[offset + 1] = b;
+        buffer[offset + 2] = c;
+        buffer[offset + 3] = d;
+        buffer[offset + 4] = e;
+        buffer[offset + 5] = f;
+    }
+
+    public static long bits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    public static long bits(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    public static long bits(Enum<?> value) {
+        return value == null ? -1 : value.ordinal();
+    }
+
+    /**
+     * Formats every event still in the buffer, oldest first.
+     *
+     * @param lines receives one line per event
+     */
+    public void dump(Consumer<String> lines) {
+        long first = Math.max(0, count - capacity);
+        StringBuilder sb = new StringBuilder();
+        for (long i = first; i < count; i++) {
+            int offset = (int) (i & (capacity - 1)) * RECORD_SIZE;
+            long header = buffer[offset];
+            Event event = Event.values()[(int) (header & 0xFF)];
+            int fields = (int) (header >>> 8);
+
+            sb.setLength(0);
+            sb.append(event.label).append(':');
+            for (int field = 0; field < fields; field++) {
+                sb.append(' ').append(event.fields[field].name).append(": ");
+                event.fields[field].append(sb, buffer[offset + 1 + field]);
+                if (field < fields - 1)
+                    sb.append(',');
+            }
+            lines.accept(sb.toString());
+        }
+    }
+
+    public enum Event {
+        RANDOM_NUMBER("Random Number", Field.of("Number"), Field.of("Lowest"), Field.of("Largest")),
+        RANDOM_SUM("Random Sum", Field.of("Sum"), Field.of("Lowest"), Field.of("Largest"), Field.of("Dice"), Field.decimal("Modifier"), Field.of("Result")),
+        MODIFIED_RANDOM_NUMBER("Modified Random Number", Field.of("Number"), Field.of("Lowest"), Field.of("Largest"), Field.decimal("Modifier"), Field.of("Result")),
+        BLUDGER_ROLL("Bludger Play", Field.of("Play")),
+        BLUDGER_PLAY("Bludger Play", Field.of("Outcome", Bludger.class), Field.of("Hit"), Field.of("Block"), Field.of("Miss")),
+        IS_FOUL("Is Foul?", Field.of("Foul"), Field.of("Foul Likelihood"), Field.bool("Fouled")),
+        TURNOVER("Turnover", Field.of("Attacking Team", TeamType.class), Field.of("Quaffle Outcome", Quaffle.class), Field.of("Bludger Outcome", Bludger.class), Field.of("Seconds")),
+        ATTEMPT_GOAL("Attempt Goal", Field.of("Outcome", Quaffle.class), Field.of("Seconds"), Field.of("Score"), Field.of("Block"), Field.of("Miss")),
+        SNITCH_SEEN("Snitch Seen", Field.of("Snitch Chance"), Field.of("Interaction Min"), Field.of("Interaction Max"), Field.of("Snitch Outcome", Snitch.class)),
+        SEEKER_ROUND("Seeker Round", Field.of("Snitch Chance"), Field.of("Interaction Min"), Field.of("Interaction Max"), Field.of("Snitch Value"), Field.of("Home Seeker Chance"), Field.of("Away Seeker Chance")),
+        SEEKER_PLAY("Seeker Play", Field.of("Team Type", TeamType.class), Field.of("Snitch Outcome", Snitch.class), Field.of("Bludger Outcome", Bludger.class)),
+        SHRINK_SNITCH_CHANCE_RANGE("Shrink Snitch Chance Range", Field.of("Divisor"), Field.of("Snitch Chance"), Field.of("Chance Min"), Field.of("Chance Max"), Field.of("Interaction Min"), Field.of("Interaction Max")),
+        INJURY_CHANCE("Injury", Field.of("Chance 1"), Field.of("Chance 2"), Field.of("Chance 3"), Field.of("Chance 4"), Field.bool("Injured")),
+        INJURY_ROLL("Injury", Field.of("Roll"), Field.bool("Injured")),
+        INJURED("Injured", Field.of("Injury"), Field.of("Severity Roll"));
+
+        final String label;
+        final Field[] fields;
+
+        Event(String label, Field... fields) {
+            if (fields.length > FIELDS)
+                throw new IllegalArgumentException(label + " has more than " + FIELDS + " fields");
+            this.label = label;
+            this.fields = fields;
+        }
+    }
+
+    record Field(String name, Kind kind, Class<? extends Enum<?>> enumType) {
+        enum Kind {LONG, DOUBLE, BOOLEAN, ENUM}
+
+        static Field of(String name) {
+            return new Field(name, Kind.LONG, null);
+        }
+
+        static Field of(String name, Class<? extends Enum<?>> enumType) {
+            return new Field(name, Kind.ENUM, enumType);
+        }
+
+        static Field decimal(String name) {
+            return new Field(name, Kind.DOUBLE, null);
+        }
+
+        static Field bool(String name) {
+            return new Field(name, Kind.BOOLEAN, null);
+        }
+
+        void append(StringBuilder sb, long value) {
+            switch (kind) {
+                case LONG -> sb.append(value);
+                case DOUBLE -> sb.append(Double.longBitsToDouble(value));
+                case BOOLEAN -> sb.append(value != 0);
+                case ENUM -> sb.append(value < 0 ? "null" : enumType.getEnumConstants()[(int) value].toString());
+            }
+        }
+    }
+}
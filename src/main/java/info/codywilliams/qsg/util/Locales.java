@@ -0,0 +1,43 @@
+/*
+ * Quidditch Season Generator
+ * Copyright (C) 2023.  Cody Williams
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package info.codywilliams.qsg.util;
+
+import java.time.DayOfWeek;
+import java.util.Locale;
+
+/**
+ * Locale set up shared by the application and the command line, kept apart from JavaFX so the command line doesn't
+ * load it.
+ */
+public class Locales {
+    private Locales() {
+    }
+
+    /**
+     * Sets the default format locale to the current one with the first day of the week being Monday.  Has to be called
+     * before {@link Formatters} is first used.
+     */
+    public static void setupDefault() {
+        Locale.setDefault(Locale.Category.FORMAT, new Locale.Builder()
+                .setLocale(Locale.getDefault())
+                .setExtension(Locale.UNICODE_LOCALE_EXTENSION, "fw-" + DayOfWeek.MONDAY.toString().substring(0, 3))
+                .build());
+    }
+}
@@ -18,67 +18,160 @@
 
 package info.codywilliams.qsg.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.function.Function;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Fills the ${token} placeholders in resource bundle strings.  Tokens without a value are left in the text as they are.
+ * <p>
+ * Every bundle entry is split into literal text and token names the first time it's used, filling it in is then a
+ * single pass appending the parts.  Token values are held in immutable {@link Tokens}, so strings can be filled in
+ * from any number of threads, either with the replacer's own tokens or with tokens passed in for one page.
+ */
 public class ResourceBundleReplacer {
-    static private final Pattern pattern = Pattern.compile("\\$\\{(\\w*)\\}");
     private final ResourceBundle resourceBundle;
-    private final HashMap<String, String> tokenMap;
-    private final Replacer replacer;
+    private final ConcurrentHashMap<String, Template> templates;
+    private volatile Tokens tokens;
 
     public ResourceBundleReplacer(ResourceBundle resourceBundle) {
         this.resourceBundle = resourceBundle;
-        this.tokenMap = new HashMap<>();
-        replacer = new Replacer();
+        templates = new ConcurrentHashMap<>();
+        tokens = Tokens.EMPTY;
     }
 
     public String getString(String key) {
-        String text = resourceBundle.getString(key);
-        Matcher matcher = pattern.matcher(text);
+        return getString(key, tokens);
+    }
 
-        return matcher.replaceAll(replacer);
+    public String getString(String key, Tokens tokens) {
+        return template(key).render(Map.of(), tokens);
     }
 
+    /**
+     * @param tempTokenMap tokens for this string only, used before the replacer's own tokens
+     */
     public String getStringWithTempTokens(String key, Map<String, String> tempTokenMap) {
-        String text = resourceBundle.getString(key);
-        Matcher matcher = pattern.matcher(text);
+        return getStringWithTempTokens(key, tokens, tempTokenMap);
+    }
+
+    public String getStringWithTempTokens(String key, Tokens tokens, Map<String, String> tempTokenMap) {
+        return template(key).render(tempTokenMap, tokens);
+    }
 
-        replacer.setTempTokenMap(tempTokenMap);
-        text = matcher.replaceAll(replacer);
-        replacer.clearTempTokenMap();
-        return text;
+    /**
+     * @param value the token's value, or null to remove it
+     */
+    public synchronized void addToken(String key, String value) {
+        tokens = tokens.with(key, value);
     }
 
-    public void addToken(String key, String value) {
-        if (value == null) {
-            tokenMap.remove(key);
-            return;
+    public Tokens getTokens() {
+        return tokens;
+    }
+
+    private Template template(String key) {
+        Template template = templates.get(key);
+        if (template == null)
+            template = templates.computeIfAbsent(key, k -> Template.compile(resourceBundle.getString(k)));
+        return template;
+    }
+
+    /**
+     * Immutable token values, changes return a copy.
+     */
+    public static final class Tokens {
+        public static final Tokens EMPTY = new Tokens(Map.of());
+        private final Map<String, String> values;
+
+        private Tokens(Map<String, String> values) {
+            this.values = values;
+        }
+
+        /**
+         * @param value the token's value, or null to remove it
+         */
+        public Tokens with(String key, String value) {
+            HashMap<String, String> copy = new HashMap<>(values);
+            if (value == null)
+                copy.remove(key);
+            else
+                copy.put(key, value);
+            return new Tokens(copy);
+        }
+
+        /**
+         * @param values tokens to add, a null value removes that token
+         */
+        public Tokens with(Map<String, String> values) {
+            HashMap<String, String> copy = new HashMap<>(this.values);
+            values.forEach((key, value) -> {
+                if (value == null)
+                    copy.remove(key);
+                else
+                    copy.put(key, value);
+            });
+            return new Tokens(copy);
+        }
+
+        public String get(String key) {
+            return values.get(key);
         }
-        tokenMap.put(key, value);
     }
 
-    private class Replacer implements Function<MatchResult, String> {
-        Map<String, String> tempTokenMap = Map.of();
-        @Override
-        public String apply(MatchResult matchResult) {
-            if (tempTokenMap.containsKey(matchResult.group(1))) {
-                return Matcher.quoteReplacement(tempTokenMap.get(matchResult.group(1)));
+    /**
+     * A bundle string split on its tokens, literals[i] comes before tokens[i] and the last literal ends the string.
+     */
+    private record Template(String[] literals, String[] tokens, String[] placeholders) {
+        static Template compile(String text) {
+            List<String> literals = new ArrayList<>();
+            List<String> tokens = new ArrayList<>();
+            int literalStart = 0;
+            int i = text.indexOf("${");
+            while (i >= 0) {
+                int end = i + 2;
+                while (end < text.length() && isWordCharacter(text.charAt(end)))
+                    end++;
+
+                if (end < text.length() && text.charAt(end) == '}') {
+                    literals.add(text.substring(literalStart, i));
+                    tokens.add(text.substring(i + 2, end));
+                    literalStart = end + 1;
+                    i = text.indexOf("${", literalStart);
+                } else {
+                    i = text.indexOf("${", i + 1);
+                }
             }
-            return Matcher.quoteReplacement(tokenMap.getOrDefault(matchResult.group(1), matchResult.group()));
+            literals.add(text.substring(literalStart));
+
+            String[] placeholders = tokens.stream().map(token -> "${" + token + "}").toArray(String[]::new);
+            return new Template(literals.toArray(String[]::new), tokens.toArray(String[]::new), placeholders);
         }
 
-        public void clearTempTokenMap() {
-            tempTokenMap = Map.of();
+        /**
+         * The same characters as \w in a regular expression
+         */
+        private static boolean isWordCharacter(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
         }
 
-        public void setTempTokenMap(Map<String, String> tempTokenMap) {
-            this.tempTokenMap = tempTokenMap;
+        String render(Map<String, String> tempTokens, Tokens tokens) {
+            if (this.tokens.length == 0)
+                return literals[0];
+
+            StringBuilder builder = new StringBuilder(literals[0].length() + 16 * this.tokens.length);
+            builder.append(literals[0]);
+            for (int i = 0; i < this.tokens.length; i++) {
+                String value = tempTokens.get(this.tokens[i]);
+                if (value == null)
+                    value = tokens.get(this.tokens[i]);
+                builder.append(value != null ? value : placeholders[i]);
+                builder.append(literals[i + 1]);
+            }
+            return builder.toString();
         }
     }
 }